@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.service.BookingService;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BookingServiceImpl.getAllByUser} / {@code getAllByOwner} для каждого {@link BookingState}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "CANCELED"})
+    public BookingState state;
+
+    private BookingService bookingService;
+    private final Pageable pageable = PageRequest.of(0, 10);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) {
+        bookingService = server.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllByUser(ServerState server) {
+        Long bookerId = server.bookerIds.get(next++ % server.bookerIds.size());
+
+        return bookingService.getAllByUser(bookerId, state, server.now, pageable);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllByOwner(ServerState server) {
+        Long ownerId = server.ownerIds.get(next++ % server.ownerIds.size());
+
+        return bookingService.getAllByOwner(ownerId, state, server.now, pageable);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка через JPA ({@code saveAll} пакета новых сущностей в одной транзакции), вставок в секунду.
+ * <p>
+ * С {@code IDENTITY} Hibernate выполняет INSERT на каждый {@code persist} (ID нужен сразу),
+ * с последовательностями - откладывает до flush и отправляет пакетами JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 500;
+
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private List<Item> items;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) {
+        itemRepository = server.getBean(ItemRepository.class);
+        bookingRepository = server.getBean(BookingRepository.class);
+        items = itemRepository.findAll().subList(0, ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Item> items(ServerState server) {
+        List<Item> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(Item.builder()
+                    .name("benchmark item " + next++)
+                    .description("inserted by InsertBenchmark")
+                    .available(true)
+                    .owner(User.builder().id(server.ownerIds.get(i % server.ownerIds.size())).build())
+                    .build());
+        }
+
+        return itemRepository.saveAll(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Booking> bookings(ServerState server) {
+        List<Booking> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(Booking.builder()
+                    .item(items.get(i))
+                    .booker(User.builder().id(server.bookerIds.get(i % server.bookerIds.size())).build())
+                    .start(server.now.plusDays(30).plusMinutes(next++))
+                    .end(server.now.plusDays(31))
+                    .status(BookingStatus.WAITING).build());
+        }
+
+        return bookingRepository.saveAll(batch);
+    }
+}
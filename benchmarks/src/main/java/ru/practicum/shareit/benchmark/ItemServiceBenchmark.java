@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ItemServiceImpl.getAll}: вещи владельца с последним/следующим бронированием
+ * и комментариями (сборка через groupingBy/toMap), {@code get} и {@code search}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "20"})
+    public int pageSize;
+
+    private ItemService itemService;
+    private Pageable pageable;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) {
+        itemService = server.getBean(ItemService.class);
+        pageable = PageRequest.of(0, pageSize);
+    }
+
+    @Benchmark
+    public List<ItemDto> getAll(ServerState server) {
+        Long ownerId = server.ownerIds.get(next++ % server.ownerIds.size());
+
+        return itemService.getAll(ownerId, pageable, server.now);
+    }
+
+    @Benchmark
+    public ItemDto get(ServerState server) {
+        Long ownerId = server.ownerIds.get(next++ % server.ownerIds.size());
+        List<ItemDto> items = itemService.getAll(ownerId, PageRequest.of(0, 1), server.now);
+
+        return itemService.get(ownerId, items.get(0).getId());
+    }
+
+    @Benchmark
+    public List<ItemSimpleDto> search(ServerState server) {
+        String text = server.searchTexts.get(next++ % server.searchTexts.size());
+
+        return itemService.search(text, pageable);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.dto.BookingMapper;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.json.JsonConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.ShareItServer.RANDOM;
+
+/**
+ * Сериализация ответов в JSON.
+ * <p>
+ * ObjectMapper собран тем же {@link Jackson2ObjectMapperBuilder}, что и в Spring Boot
+ * (модули java.time, даты строками). {@code json=default} - writer на каждый вызов,
+ * {@code json=fast} - {@link JsonConfig} (Blackbird, быстрые даты) и готовый writer на тип.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"default", "fast"})
+    public String json;
+
+    private ObjectWriter itemWriter;
+    private ObjectWriter bookingsWriter;
+    private ItemDto item;
+    private List<BookingDto> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        if ("fast".equals(json)) {
+            JsonConfig.configure(objectMapper);
+            itemWriter = objectMapper.writerFor(ItemDto.class);
+            bookingsWriter = objectMapper.writerFor(new TypeReference<List<BookingDto>>() {
+            });
+        } else {
+            itemWriter = objectMapper.writer();
+            bookingsWriter = objectMapper.writer();
+        }
+
+        item = RANDOM.nextObject(ItemDto.class);
+        List<CommentDto> comments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            comments.add(RANDOM.nextObject(CommentDto.class));
+        }
+        item.setComments(comments);
+
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bookings.add(BookingMapper.INSTANCE.toDto(RANDOM.nextObject(Booking.class)));
+        }
+    }
+
+    @Benchmark
+    public byte[] itemDto() throws JsonProcessingException {
+        return itemWriter.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] bookingDtoList() throws JsonProcessingException {
+        return bookingsWriter.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.dto.BookingItemDto;
+import ru.practicum.shareit.booking.api.dto.BookingMapper;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+import ru.practicum.shareit.item.api.dto.CommentMapper;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.dto.ItemMapper;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.entity.CommentEntity;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.ShareItServer.RANDOM;
+
+/**
+ * MapStruct-конвертации сущностей в DTO (без БД).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Item item;
+    private Booking booking;
+    private CommentEntity comment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        item = RANDOM.nextObject(Item.class);
+        booking = RANDOM.nextObject(Booking.class);
+        comment = RANDOM.nextObject(CommentEntity.class);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.INSTANCE.toDto(item);
+    }
+
+    @Benchmark
+    public ItemSimpleDto itemToSimpleDto() {
+        return ItemMapper.INSTANCE.toSimpleDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.INSTANCE.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingItemDto bookingToItemDto() {
+        return BookingMapper.INSTANCE.toItemDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.INSTANCE.toDto(comment);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.item.api.repository.CommentRepository;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.entity.CommentEntity;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.api.repository.UserRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ru.practicum.shareit.ShareItServer.RANDOM;
+
+/**
+ * Контекст сервера на встроенной H2 (профиль {@code benchmark}),
+ * заполненный данными из {@link ShareItServer#RANDOM}.
+ * <p>
+ * Один контекст на запуск бенчмарка ({@link Level#Trial}).
+ * Каждый владелец: {@link #ITEMS_PER_OWNER} вещей, на каждую вещь
+ * бронирования во всех статусах и {@link #COMMENTS_PER_ITEM} комментариев.
+ */
+@State(Scope.Benchmark)
+public class ServerState {
+    public static final int OWNERS = 50;
+    public static final int ITEMS_PER_OWNER = 20;
+    public static final int COMMENTS_PER_ITEM = 30;
+
+    public ConfigurableApplicationContext context;
+    public LocalDateTime now;
+    public List<Long> ownerIds;
+    public List<Long> bookerIds;
+    public List<String> searchTexts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .run();
+        now = LocalDateTime.now();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed() {
+        UserRepository userRepository = getBean(UserRepository.class);
+        ItemRepository itemRepository = getBean(ItemRepository.class);
+        BookingRepository bookingRepository = getBean(BookingRepository.class);
+        CommentRepository commentRepository = getBean(CommentRepository.class);
+
+        List<User> owners = userRepository.saveAll(newUsers("owner", OWNERS));
+        List<User> bookers = userRepository.saveAll(newUsers("booker", OWNERS));
+        ownerIds = getIds(owners);
+        bookerIds = getIds(bookers);
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : owners) {
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                Item item = RANDOM.nextObject(Item.class);
+                item.setId(null);
+                item.setAvailable(true);
+                item.setOwner(owner);
+                item.setRequest(null);
+                items.add(item);
+            }
+        }
+        items = itemRepository.saveAll(items);
+        searchTexts = getSearchTexts(items);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<CommentEntity> comments = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            User booker = bookers.get(i % bookers.size());
+            bookings.add(newBooking(item, booker, now.minusDays(10), now.minusDays(5), BookingStatus.APPROVED));
+            bookings.add(newBooking(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED));
+            bookings.add(newBooking(item, booker, now.plusDays(5), now.plusDays(10), BookingStatus.WAITING));
+            bookings.add(newBooking(item, booker, now.plusDays(15), now.plusDays(20), BookingStatus.REJECTED));
+            bookings.add(newBooking(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.CANCELED));
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(CommentEntity.builder()
+                        .text(RANDOM.nextObject(String.class))
+                        .item(item)
+                        .author(booker)
+                        .created(now.minusDays(4).plusMinutes(c)).build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+
+    private static List<User> newUsers(String role, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = RANDOM.nextObject(User.class);
+            user.setId(null);
+            user.setEmail(role + i + "@benchmark.shareit");
+            users.add(user);
+        }
+
+        return users;
+    }
+
+    private static Booking newBooking(
+            Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status).build();
+    }
+
+    private static List<String> getSearchTexts(List<Item> items) {
+        List<String> texts = new ArrayList<>(items.size());
+        items.forEach(item -> texts.add(item.getName().substring(0, Math.min(3, item.getName().length()))));
+
+        return texts;
+    }
+
+    private static List<Long> getIds(List<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        users.forEach(user -> ids.add(user.getId()));
+
+        return ids;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.gate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Проверка производительности относительно сохранённых baseline (профиль {@code perf-gate}).
+ * <p>
+ * JMH ({@code -bm sample -prof gc -rf json}): p99 и {@code gc.alloc.rate.norm} (байт на операцию)
+ * по каждому бенчмарку из {@code baselines/jmh.json}. <br/>
+ * Нагрузка ({@code load-report.json}): p99 по endpoint из {@code baselines/load.json}. <br/>
+ * Рост выше порога ({@code perf.gate.latency-threshold}, {@code perf.gate.alloc-threshold})
+ * - код возврата 1. {@code -Dperf.gate.update=true} перезаписывает baseline текущими результатами.
+ */
+public class PerfGate {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String JMH_BASELINE = "jmh.json";
+    private static final String LOAD_BASELINE = "load.json";
+
+    private final Path baselines = Path.of(get("perf.gate.baselines", "baselines"));
+    private final Path jmhResult = Path.of(get("perf.gate.jmh", "target/jmh-result.json"));
+    private final Path loadReport = Path.of(get("perf.gate.load", "target/load-report.json"));
+    private final List<String> suites = Arrays.asList(get("perf.gate.suites", "jmh,load").split(","));
+    private final List<String> endpoints = Arrays.asList(get("perf.gate.endpoints", "item,search,owner").split(","));
+    private final double latencyThreshold = Double.parseDouble(get("perf.gate.latency-threshold", "0.20"));
+    private final double allocThreshold = Double.parseDouble(get("perf.gate.alloc-threshold", "0.10"));
+    private final boolean update = Boolean.parseBoolean(get("perf.gate.update", "false"));
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        PerfGate gate = new PerfGate();
+        if (gate.update) {
+            gate.update();
+
+            return;
+        }
+        gate.check();
+        if (!gate.failures.isEmpty()) {
+            System.out.println("PERFORMANCE REGRESSION:");
+            gate.failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("Performance gate passed");
+    }
+
+    void check() throws IOException {
+        if (suites.contains("jmh")) {
+            checkJmh(read(baselines.resolve(JMH_BASELINE)), toJmhStats(read(jmhResult)));
+        }
+        if (suites.contains("load")) {
+            checkLoad(read(baselines.resolve(LOAD_BASELINE)), read(loadReport));
+        }
+    }
+
+    void update() throws IOException {
+        Files.createDirectories(baselines);
+        if (suites.contains("jmh")) {
+            MAPPER.writeValue(baselines.resolve(JMH_BASELINE).toFile(), toJmhStats(read(jmhResult)));
+        }
+        if (suites.contains("load")) {
+            JsonNode report = read(loadReport);
+            ObjectNode baseline = MAPPER.createObjectNode();
+            baseline.set("config", report.path("config"));
+            ObjectNode p99 = baseline.putObject("endpoints");
+            for (String name : endpoints) {
+                JsonNode stats = report.path("endpoints").path(name);
+                if (stats.isMissingNode() || stats.path("errors").asLong() > 0) {
+                    throw new IllegalStateException("Load report has no clean result for endpoint " + name);
+                }
+                p99.putObject(name).put("p99", stats.path("p99").asDouble());
+            }
+            MAPPER.writeValue(baselines.resolve(LOAD_BASELINE).toFile(), baseline);
+        }
+        System.out.println("Baselines updated: " + baselines.toAbsolutePath());
+    }
+
+    private void checkJmh(JsonNode baseline, ObjectNode current) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = baseline.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> expected = it.next();
+            JsonNode actual = current.get(expected.getKey());
+            if (actual == null) {
+                failures.add(format("%s: no JMH result", expected.getKey()));
+                continue;
+            }
+            compare(expected.getKey() + " p99", expected.getValue().path("p99"), actual.path("p99"), latencyThreshold);
+            compare(expected.getKey() + " alloc B/op", expected.getValue().path("alloc"), actual.path("alloc"),
+                    allocThreshold);
+        }
+    }
+
+    private void checkLoad(JsonNode baseline, JsonNode report) {
+        if (!baseline.path("config").equals(report.path("config"))) {
+            failures.add(format("load: config %s differs from baseline %s",
+                    report.path("config"), baseline.path("config")));
+
+            return;
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = baseline.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> expected = it.next();
+            JsonNode actual = report.path("endpoints").path(expected.getKey());
+            if (actual.path("errors").asLong() > 0) {
+                failures.add(format("load %s: %d errors", expected.getKey(), actual.path("errors").asLong()));
+            }
+            compare("load " + expected.getKey() + " p99 ms", expected.getValue().path("p99"), actual.path("p99"),
+                    latencyThreshold);
+        }
+    }
+
+    private void compare(String name, JsonNode expected, JsonNode actual, double threshold) {
+        if (expected.isMissingNode()) {
+
+            return;
+        }
+        if (actual.isMissingNode()) {
+            failures.add(format("%s: no result", name));
+
+            return;
+        }
+        double limit = expected.asDouble() * (1 + threshold);
+        String line = format("%s: %.2f (baseline %.2f, limit %.2f)",
+                name, actual.asDouble(), expected.asDouble(), limit);
+        System.out.println(line);
+        if (actual.asDouble() > limit) {
+            failures.add(line);
+        }
+    }
+
+    /**
+     * Результат JMH -> {@code {"Benchmark.method{param=value}": {"p99": ..., "alloc": ...}}}.
+     */
+    static ObjectNode toJmhStats(JsonNode results) {
+        ObjectNode stats = MAPPER.createObjectNode();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("ru.practicum.shareit.benchmark.", ""));
+            if (result.has("params")) {
+                key.append(result.path("params").toString().replace("\"", "").replace(":", "="));
+            }
+            ObjectNode stat = stats.putObject(key.toString());
+            JsonNode primary = result.path("primaryMetric");
+            stat.put("unit", primary.path("scoreUnit").asText());
+            double p99 = primary.path("scorePercentiles").path("99.0").asDouble(primary.path("score").asDouble());
+            stat.put("p99", round(p99));
+            JsonNode secondary = result.path("secondaryMetrics");
+            JsonNode alloc = secondary.has("gc.alloc.rate.norm")
+                    ? secondary.path("gc.alloc.rate.norm")
+                    : secondary.path("·gc.alloc.rate.norm");
+            if (!alloc.isMissingNode()) {
+                stat.put("alloc", round(alloc.path("score").asDouble()));
+            }
+        }
+
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static JsonNode read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("Not found: " + path.toAbsolutePath());
+        }
+
+        return MAPPER.readTree(path.toFile());
+    }
+
+    private static String get(String name, String defaultValue) {
+        String value = System.getProperty(name);
+
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+}
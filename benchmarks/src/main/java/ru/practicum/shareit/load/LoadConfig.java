@@ -0,0 +1,72 @@
+package ru.practicum.shareit.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Параметры нагрузочного прогона, задаются системными свойствами {@code -Dload.*}.
+ * <p>
+ * Объёмы данных: {@code load.users}, {@code load.items}, {@code load.requests},
+ * {@code load.bookings}, {@code load.comments}. <br/>
+ * Нагрузка: {@code load.threads}, {@code load.warmup} и {@code load.duration} (секунды). <br/>
+ * База: {@code load.datasource.url/username/password/platform} (по умолчанию встроенная H2). <br/>
+ * Gateway: {@code load.gateway.jar} (пусто - запросы идут напрямую в сервер). <br/>
+ * Потоки запросов сервера и gateway: {@code load.threads-mode} ({@code platform} или {@code virtual}). <br/>
+ * Внешний стенд: {@code load.external-url} - сервисы не запускаются, нагрузка идёт на этот адрес,
+ * база ({@code load.datasource.url}) заполняется напрямую; так сравниваются режимы под ограничениями
+ * CPU из {@code docker-compose.yml}. <br/>
+ * Отчёт: {@code load.report} (JSON).
+ */
+public class LoadConfig {
+    final int users = getInt("load.users", 100_000);
+    final int items = getInt("load.items", 200_000);
+    final int requests = getInt("load.requests", 20_000);
+    final int bookings = getInt("load.bookings", 1_000_000);
+    final int comments = getInt("load.comments", 200_000);
+    final long seed = getInt("load.seed", 42);
+    final double skew = Double.parseDouble(get("load.skew", "1.1"));
+
+    final int threads = getInt("load.threads", 32);
+    final Duration warmup = Duration.ofSeconds(getInt("load.warmup", 15));
+    final Duration duration = Duration.ofSeconds(getInt("load.duration", 60));
+    final int pageSize = getInt("load.page-size", 20);
+
+    final int serverPort = getInt("load.server.port", 9090);
+    final int gatewayPort = getInt("load.gateway.port", 8080);
+    final String gatewayJar = get("load.gateway.jar", "");
+    final String threadsMode = get("load.threads-mode", "platform");
+    final String externalUrl = get("load.external-url", "");
+
+    final String datasourceUrl = get("load.datasource.url", "");
+    final String datasourceUsername = get("load.datasource.username", "");
+    final String datasourcePassword = get("load.datasource.password", "");
+
+    final Path report = Path.of(get("load.report", "target/load-report.json"));
+
+    boolean withGateway() {
+        return !gatewayJar.isBlank();
+    }
+
+    boolean isExternal() {
+        return !externalUrl.isBlank();
+    }
+
+    String baseUrl() {
+        if (isExternal()) {
+
+            return externalUrl;
+        }
+
+        return "http://localhost:" + (withGateway() ? gatewayPort : serverPort);
+    }
+
+    private static String get(String name, String defaultValue) {
+        String value = System.getProperty(name);
+
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)).replace("_", ""));
+    }
+}
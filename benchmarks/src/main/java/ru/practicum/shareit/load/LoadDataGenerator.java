@@ -0,0 +1,178 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static ru.practicum.shareit.constants.Constants.RANDOM;
+
+/**
+ * Заполнение пустой базы реалистичными данными пакетами JDBC.
+ * <p>
+ * Тексты - слова из {@link #WORDS} (по ним идёт поиск) и шум из {@code Constants.RANDOM}.
+ * Владельцы вещей, арендаторы, популярность вещей и авторы комментариев
+ * распределены по Ципфу ({@code load.skew}).
+ */
+@Slf4j
+class LoadDataGenerator {
+    static final List<String> WORDS = List.of(
+            "дрель", "перфоратор", "палатка", "велосипед", "самокат", "лодка", "гитара", "проектор",
+            "камера", "лестница", "шуруповёрт", "пила", "мангал", "каяк", "лыжи", "сноуборд",
+            "коляска", "шатёр", "генератор", "компрессор", "мойка", "рюкзак", "спальник", "штатив");
+    private static final int BATCH_SIZE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadConfig config;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    LoadDataGenerator(JdbcTemplate jdbcTemplate, LoadConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    SeededData generate() {
+        long started = System.nanoTime();
+
+        insert("insert into public.users (email, name) values (?, ?)", config.users, (ps, i) -> {
+            ps.setString(1, "user" + i + "@load.shareit");
+            ps.setString(2, RANDOM.nextObject(String.class));
+        });
+        long[] userIds = selectIds("users");
+
+        ZipfSampler users = new ZipfSampler(userIds.length, config.skew);
+        long[] owners = shuffled(userIds);
+        long[] bookers = shuffled(userIds);
+
+        insert("insert into public.requests (created, description, requester_id) values (?, ?, ?)",
+                config.requests, (ps, i) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                    ps.setString(2, getText());
+                    ps.setLong(3, bookers[users.next(random)]);
+                });
+        long[] requestIds = selectIds("requests");
+
+        insert("insert into public.items (name, description, available, owner_id, item_request_id) " +
+                "values (?, ?, ?, ?, ?)", config.items, (ps, i) -> {
+            ps.setString(1, WORDS.get(random.nextInt(WORDS.size())) + " " + RANDOM.nextObject(String.class));
+            ps.setString(2, getText());
+            ps.setBoolean(3, random.nextInt(10) > 0);
+            ps.setLong(4, owners[users.next(random)]);
+            if (requestIds.length > 0 && random.nextInt(20) == 0) {
+                ps.setLong(5, requestIds[random.nextInt(requestIds.length)]);
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+        });
+        long[] itemIds = shuffled(selectIds("items"));
+        ZipfSampler items = new ZipfSampler(itemIds.length, config.skew);
+
+        insert("insert into public.bookings (start_time, break_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", config.bookings, (ps, i) -> {
+            LocalDateTime start = now.minusDays(365).plusMinutes(random.nextInt(60 * 24 * 425));
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(start.plusHours(1 + random.nextInt(24 * 14))));
+            ps.setLong(3, itemIds[items.next(random)]);
+            ps.setLong(4, bookers[users.next(random)]);
+            ps.setString(5, getStatus(start));
+        });
+
+        insert("insert into public.comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                config.comments, (ps, i) -> {
+                    ps.setString(1, getText());
+                    ps.setLong(2, itemIds[items.next(random)]);
+                    ps.setLong(3, bookers[users.next(random)]);
+                    ps.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                });
+
+        log.warn("[i] SEEDED users:{} items:{} requests:{} bookings:{} comments:{} in {} s",
+                config.users, config.items, config.requests, config.bookings, config.comments,
+                (System.nanoTime() - started) / 1_000_000_000);
+
+        return new SeededData(owners, bookers, users, itemIds, items);
+    }
+
+    private String getStatus(LocalDateTime start) {
+        int roll = random.nextInt(100);
+        if (start.isAfter(now)) {
+
+            return roll < 40 ? "WAITING" : roll < 90 ? "APPROVED" : "REJECTED";
+        }
+
+        return roll < 85 ? "APPROVED" : roll < 95 ? "REJECTED" : "CANCELED";
+    }
+
+    private String getText() {
+        return WORDS.get(random.nextInt(WORDS.size())) + " " + RANDOM.nextObject(String.class);
+    }
+
+    private long[] shuffled(long[] ids) {
+        long[] copy = ids.clone();
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = copy[i];
+            copy[i] = copy[j];
+            copy[j] = swap;
+        }
+
+        return copy;
+    }
+
+    private long[] selectIds(String table) {
+        return jdbcTemplate.queryForList("select id from public." + table + " order by id", Long.class)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private void insert(String sql, int count, RowSetter setter) {
+        for (int offset = 0; offset < count; offset += BATCH_SIZE) {
+            int from = offset;
+            int size = Math.min(BATCH_SIZE, count - offset);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, from + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    /**
+     * ID пользователей и вещей в порядке популярности для генерации запросов.
+     */
+    static class SeededData {
+        final long[] owners;
+        final long[] bookers;
+        final ZipfSampler users;
+        final long[] itemIds;
+        final ZipfSampler items;
+
+        SeededData(long[] owners, long[] bookers, ZipfSampler users, long[] itemIds, ZipfSampler items) {
+            this.owners = owners;
+            this.bookers = bookers;
+            this.users = users;
+            this.itemIds = itemIds;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.load.LoadDataGenerator.SeededData;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный прогон: сервер (в этом процессе) + gateway (дочерний процесс),
+ * заполнение базы, смешанная нагрузка, отчёт.
+ * <p>
+ * Запуск: {@code mvn -B verify -Pload -DskipTests} (параметры - {@link LoadConfig}).
+ */
+@Slf4j
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = new LoadConfig();
+        if (config.isExternal()) {
+            runExternal(config);
+            System.exit(0);
+        }
+        ConfigurableApplicationContext server = startServer(config);
+        Process gateway = null;
+        try {
+            SeededData data = new LoadDataGenerator(server.getBean(JdbcTemplate.class), config).generate();
+            if (config.withGateway()) {
+                gateway = startGateway(config);
+            }
+            waitForHealth(config.baseUrl() + "/actuator/health", Duration.ofMinutes(2));
+
+            run(config, data);
+        } finally {
+            if (gateway != null) {
+                gateway.destroy();
+            }
+            server.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Нагрузка на уже запущенный стенд (например, {@code docker compose up}): база заполняется напрямую.
+     */
+    private static void runExternal(LoadConfig config) throws Exception {
+        if (config.datasourceUrl.isBlank()) {
+            throw new IllegalStateException("load.external-url requires load.datasource.url");
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                config.datasourceUrl, config.datasourceUsername, config.datasourcePassword);
+        SeededData data = new LoadDataGenerator(new JdbcTemplate(dataSource), config).generate();
+        waitForHealth(config.baseUrl() + "/actuator/health", Duration.ofMinutes(2));
+        run(config, data);
+    }
+
+    private static void run(LoadConfig config, SeededData data) throws Exception {
+        LoadReport report = new LoadWorkload(config, data).run();
+        System.out.println(report.toTable());
+        report.write(config.report);
+        System.out.println("Report: " + config.report.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext startServer(LoadConfig config) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=servlet",
+                "--server.port=" + config.serverPort,
+                "--shareit.threads.mode=" + config.threadsMode));
+        if (!config.datasourceUrl.isBlank()) {
+            args.add("--spring.datasource.driverClassName=org.postgresql.Driver");
+            args.add("--spring.datasource.url=" + config.datasourceUrl);
+            args.add("--spring.datasource.username=" + config.datasourceUsername);
+            args.add("--spring.datasource.password=" + config.datasourcePassword);
+        }
+
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("benchmark")
+                .run(args.toArray(String[]::new));
+    }
+
+    private static Process startGateway(LoadConfig config) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        return new ProcessBuilder(java, "-jar", new File(config.gatewayJar).getAbsolutePath(),
+                "--server.port=" + config.gatewayPort,
+                "--shareit.threads.mode=" + config.threadsMode,
+                "--shareit-server.url=http://localhost:" + config.serverPort,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN")
+                .inheritIO()
+                .start();
+    }
+
+    private static void waitForHealth(String url, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+
+                    return;
+                }
+            } catch (Exception e) {
+                log.debug("[i] Waiting for {}", url);
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Service is not healthy: " + url);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Итог прогона: пропускная способность и перцентили задержки (мс) по каждому endpoint.
+ */
+public class LoadReport {
+    private final Map<String, Object> config = new LinkedHashMap<>();
+    private final Map<String, Map<String, Number>> endpoints = new LinkedHashMap<>();
+    private final double seconds;
+
+    LoadReport(LoadConfig loadConfig, double seconds) {
+        this.seconds = seconds;
+        config.put("threads", loadConfig.threads);
+        config.put("durationSeconds", loadConfig.duration.toSeconds());
+        config.put("users", loadConfig.users);
+        config.put("items", loadConfig.items);
+        config.put("bookings", loadConfig.bookings);
+        config.put("comments", loadConfig.comments);
+        config.put("requests", loadConfig.requests);
+        config.put("gateway", loadConfig.withGateway());
+        config.put("threadsMode", loadConfig.threadsMode);
+        config.put("external", loadConfig.isExternal());
+    }
+
+    void add(String endpoint, Histogram histogram, long errors) {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.getTotalCount());
+        stats.put("errors", errors);
+        stats.put("throughput", round(histogram.getTotalCount() / seconds));
+        stats.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+        stats.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+        stats.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+        stats.put("p999", toMillis(histogram.getValueAtPercentile(99.9)));
+        stats.put("max", toMillis(histogram.getMaxValue()));
+        endpoints.put(endpoint, stats);
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder(format("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((name, stats) -> table.append(format("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.get("count"), stats.get("errors"), stats.get("throughput"),
+                stats.get("p50"), stats.get("p90"), stats.get("p99"), stats.get("p999"), stats.get("max"))));
+
+        return table.toString();
+    }
+
+    void write(Path path) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", config);
+        json.put("endpoints", endpoints);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), json);
+    }
+
+    private static double toMillis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Recorder;
+import ru.practicum.shareit.load.LoadDataGenerator.SeededData;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Смешанная нагрузка на API в {@code load.threads} потоков (закрытая модель, без пауз).
+ * <p>
+ * Доли запросов: {@code /items/search} 30%, {@code /items/{id}} 20%, {@code /bookings?state=...} 15%,
+ * {@code /bookings/owner?state=...} 10%, {@code /items} 15%, {@code /requests/all} 10%. Задержки пишутся в HdrHistogram
+ * (микросекунды) отдельно по каждому endpoint; прогрев отбрасывается.
+ */
+class LoadWorkload {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadConfig config;
+    private final SeededData data;
+    private final HttpClient client;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    LoadWorkload(LoadConfig config, SeededData data) {
+        this.config = config;
+        this.data = data;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, config.threads / 4)))
+                .build();
+        endpoints.put("search", new Endpoint(30));
+        endpoints.put("item", new Endpoint(20));
+        endpoints.put("bookings", new Endpoint(15));
+        endpoints.put("owner", new Endpoint(10));
+        endpoints.put("items", new Endpoint(15));
+        endpoints.put("requests", new Endpoint(10));
+    }
+
+    LoadReport run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(config.threads);
+        long warmupEnd = System.nanoTime() + config.warmup.toNanos();
+        long end = warmupEnd + config.duration.toNanos();
+        for (int i = 0; i < config.threads; i++) {
+            workers.execute(() -> loop(end));
+        }
+
+        Thread.sleep(config.warmup.toMillis());
+        endpoints.values().forEach(Endpoint::reset);
+        long measureStart = System.nanoTime();
+
+        workers.shutdown();
+        workers.awaitTermination(config.duration.toSeconds() + 120, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        LoadReport report = new LoadReport(config, seconds);
+        endpoints.forEach((name, endpoint) ->
+                report.add(name, endpoint.recorder.getIntervalHistogram(), endpoint.errors.sum()));
+
+        return report;
+    }
+
+    private void loop(long end) {
+        Random random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            String name = pick(random);
+            HttpRequest request = build(name, random);
+            Endpoint endpoint = endpoints.get(name);
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    endpoint.errors.increment();
+                }
+            } catch (Exception e) {
+                endpoint.errors.increment();
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+            endpoint.recorder.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        }
+    }
+
+    private String pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            roll -= entry.getValue().weight;
+            if (roll < 0) {
+
+                return entry.getKey();
+            }
+        }
+
+        return "search";
+    }
+
+    private HttpRequest build(String name, Random random) {
+        String page = "from=0&size=" + config.pageSize;
+        String path;
+        long userId;
+        switch (name) {
+            case "bookings":
+                userId = data.bookers[data.users.next(random)];
+                path = "/bookings?state=" + STATES.get(random.nextInt(STATES.size())) + "&" + page;
+                break;
+            case "owner":
+                userId = data.owners[data.users.next(random)];
+                path = "/bookings/owner?state=" + STATES.get(random.nextInt(STATES.size())) + "&" + page;
+                break;
+            case "item":
+                userId = data.bookers[data.users.next(random)];
+                path = "/items/" + data.itemIds[data.items.next(random)];
+                break;
+            case "items":
+                userId = data.owners[data.users.next(random)];
+                path = "/items?" + page;
+                break;
+            case "requests":
+                userId = data.bookers[data.users.next(random)];
+                path = "/requests/all?" + page;
+                break;
+            default:
+                userId = data.bookers[data.users.next(random)];
+                String text = LoadDataGenerator.WORDS.get(random.nextInt(LoadDataGenerator.WORDS.size()));
+                path = "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&" + page;
+        }
+
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header(HEADER_USER_ID, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private static class Endpoint {
+        final int weight;
+        final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        void reset() {
+            recorder.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Индексы {@code 0..n-1} с распределением Ципфа: индекс 0 - самый популярный.
+ * <p>
+ * Перекошенная нагрузка, как в реальном сервисе: немногие пользователи и вещи
+ * получают большую часть бронирований, комментариев и запросов.
+ */
+class ZipfSampler {
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double skew) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
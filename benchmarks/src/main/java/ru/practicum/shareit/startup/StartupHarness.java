@@ -0,0 +1,209 @@
+package ru.practicum.shareit.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+/**
+ * Время старта сервера до первого ответа ({@code GET /users} = 200) по режимам запуска.
+ * <p>
+ * Режимы ({@code startup.modes}): <br/>
+ * {@code jar} - {@code java -jar *-exec.jar}, как раньше в образе; <br/>
+ * {@code exploded} - распакованный jar на обычном classpath, как в {@code server/Dockerfile}; <br/>
+ * {@code lazy} - то же с профилем {@code fast-startup}; <br/>
+ * {@code cds} - то же с архивом CDS, собранным обучающим запуском ({@code shareit.startup.training}). <br/>
+ * Параметры: {@code startup.jar}, {@code startup.runs} (запусков на режим), {@code startup.port},
+ * {@code startup.jvm-args} (по умолчанию один процессор, как при {@code cpus: 0.50}),
+ * {@code startup.dir} (рабочий каталог), {@code startup.report} (JSON).
+ * <p>
+ * Запуск: {@code mvn -B verify -Pstartup -DskipTests -pl server,benchmarks}.
+ */
+@Slf4j
+public class StartupHarness {
+    private static final String MAIN_CLASS = "ru.practicum.shareit.ShareItServer";
+    private static final String CLASSPATH = "application.jar" + File.pathSeparator + "lib" + File.separator + "*";
+    private static final List<String> H2_ARGS = List.of(
+            "--shareit.scheduling.enabled=false",
+            "--spring.datasource.driverClassName=org.h2.Driver",
+            "--spring.datasource.url=jdbc:h2:mem:startup",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=");
+
+    private final Path jar = Path.of(System.getProperty("startup.jar", "")).toAbsolutePath();
+    private final Path dir = Path.of(System.getProperty("startup.dir", "target/startup")).toAbsolutePath();
+    private final Path report = Path.of(System.getProperty("startup.report", "target/startup-report.json"));
+    private final int runs = Integer.getInteger("startup.runs", 3);
+    private final int port = Integer.getInteger("startup.port", 9191);
+    private final List<String> modes = split(System.getProperty("startup.modes", "jar,exploded,lazy,cds"), ",");
+    private final List<String> jvmArgs = split(System.getProperty("startup.jvm-args",
+            "-XX:ActiveProcessorCount=1 -Xmx512m"), " ");
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public static void main(String[] args) throws Exception {
+        new StartupHarness().run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("startup.jar not found: " + jar);
+        }
+        prepare();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        StringBuilder table = new StringBuilder(format("%-10s %10s %10s %10s%n", "mode", "min", "median", "max"));
+        for (String mode : modes) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = measure(command(mode));
+                log.info("[i] {} run {}: {} ms", mode, i + 1, millis[i]);
+            }
+            Arrays.sort(millis);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("runs", Arrays.stream(millis).boxed().collect(Collectors.toList()));
+            stats.put("min", millis[0]);
+            stats.put("median", millis[runs / 2]);
+            stats.put("max", millis[runs - 1]);
+            results.put(mode, stats);
+            table.append(format("%-10s %10d %10d %10d%n", mode, millis[0], millis[runs / 2], millis[runs - 1]));
+        }
+        System.out.println("Time to first request, ms");
+        System.out.println(table);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", Map.of("runs", runs, "jvmArgs", String.join(" ", jvmArgs)));
+        json.put("modes", results);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), json);
+        System.out.println("Report: " + report.toAbsolutePath());
+    }
+
+    /**
+     * Распаковка и архив CDS - те же шаги, что в {@code server/Dockerfile}.
+     */
+    private void prepare() throws Exception {
+        if (Files.exists(dir)) {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+            }
+        }
+        Files.createDirectories(dir);
+        String jarTool = Path.of(System.getProperty("java.home"), "bin", "jar").toString();
+        exec(List.of(jarTool, "xf", jar.toString()));
+        exec(List.of(jarTool, "cf", "application.jar", "-C", "BOOT-INF/classes", "."));
+        Files.move(dir.resolve("BOOT-INF/lib"), dir.resolve("lib"));
+        if (!modes.contains("cds")) {
+
+            return;
+        }
+
+        List<String> training = new ArrayList<>(List.of(java, "-XX:DumpLoadedClassList=app.classlist",
+                "-cp", CLASSPATH, MAIN_CLASS, "--server.port=0", "--shareit.startup.training=/users"));
+        training.addAll(H2_ARGS);
+        exec(training);
+        exec(List.of(java, "-Xshare:dump", "-XX:SharedClassListFile=app.classlist",
+                "-XX:SharedArchiveFile=app.jsa", "-cp", CLASSPATH));
+    }
+
+    private List<String> command(String mode) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        switch (mode) {
+            case "jar":
+                command.addAll(List.of("-jar", jar.toString()));
+                break;
+            case "exploded":
+            case "lazy":
+                command.addAll(List.of("-cp", CLASSPATH, MAIN_CLASS));
+                break;
+            case "cds":
+                command.addAll(List.of("-Xshare:auto", "-XX:SharedArchiveFile=app.jsa", "-cp", CLASSPATH, MAIN_CLASS));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        }
+        command.add("--server.port=" + port);
+        command.addAll(H2_ARGS);
+        if (!"jar".equals(mode) && !"exploded".equals(mode)) {
+            command.add("--spring.profiles.active=fast-startup");
+        }
+
+        return command;
+    }
+
+    private long measure(List<String> command) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                .header(HEADER_USER_ID, "1")
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("run.log").toFile())
+                .start();
+        try {
+            long deadline = started + Duration.ofMinutes(3).toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Server exited, see " + dir.resolve("run.log"));
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+
+                        return Duration.ofNanos(System.nanoTime() - started).toMillis();
+                    }
+                } catch (IOException e) {
+                    log.trace("[i] Server is not listening yet");
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Server did not answer in time, see " + dir.resolve("run.log"));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void exec(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(dir.resolve("prepare.log").toFile()))
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(format("%s failed, see %s", command.get(0), dir.resolve("prepare.log")));
+        }
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.trim().split(separator))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Обучающий запуск для архива CDS (сборка образа, бенчмарк старта).
+ * <p>
+ * {@code shareit.startup.training=<путь>}: после старта приложение один раз запрашивает у себя этот путь,
+ * чтобы в список загруженных классов ({@code -XX:DumpLoadedClassList}) попал и путь обработки запроса,
+ * после чего завершается. Используется образами и gateway, и сервера.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.startup.training")
+public class StartupTraining implements ApplicationListener<ApplicationReadyEvent> {
+    // Constants.HEADER_USER_ID of gateway and server: the common module sees neither
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        String path = event.getApplicationContext().getEnvironment().getProperty("shareit.startup.training");
+        if (event.getApplicationContext() instanceof WebServerApplicationContext) {
+            int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+            request("http://localhost:" + port + path);
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    private static void request(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestProperty(HEADER_USER_ID, "1");
+            int status = connection.getResponseCode();
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                body.readAllBytes();
+                body.close();
+            }
+            log.info("[i] Startup training request {}: {}", url, status);
+        } catch (IOException e) {
+            log.warn("[!] Startup training request {} failed: {}", url, e.getMessage());
+        }
+    }
+}
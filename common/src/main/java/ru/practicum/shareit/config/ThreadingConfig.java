@@ -0,0 +1,95 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Режим выполнения запросов: {@code shareit.threads.mode=platform} (пул Tomcat, по умолчанию)
+ * или {@code virtual} - виртуальный поток на запрос.
+ * <p>
+ * Сборка нацелена на Java 11, поэтому виртуальные потоки создаются через рефлексию и включаются только
+ * на JDK 21+; на более старой JVM остаётся пул Tomcat и пишется предупреждение. <br/>
+ * Одновременно выполняется не больше {@code shareit.threads.virtual.max-concurrency} запросов:
+ * в сервере участки JDBC под {@code synchronized} закрепляют виртуальный поток за потоком-носителем,
+ * и без ограничения носители (их столько же, сколько ядер) заканчиваются раньше соединений пула;
+ * в gateway исходящие вызовы сервера идут в потоке запроса, и всплеск входящих запросов
+ * не превращается в неограниченное число соединений к серверу.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+public class ThreadingConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer(
+            @Value("${shareit.threads.virtual.max-concurrency:200}") int maxConcurrency) {
+        Executor executor = newVirtualThreadExecutor("http-virtual-", maxConcurrency);
+
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+            }
+        };
+    }
+
+    /**
+     * @param prefix         префикс имён потоков
+     * @param maxConcurrency максимум одновременно выполняемых задач
+     * @return исполнитель "поток на задачу" или {@code null}, если JVM не поддерживает виртуальные потоки
+     */
+    static Executor newVirtualThreadExecutor(String prefix, int maxConcurrency) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Executor delegate = (Executor) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+            log.info("[i] Virtual threads enabled, max concurrency {}", maxConcurrency);
+
+            return new BoundedExecutor(delegate, maxConcurrency);
+        } catch (ReflectiveOperationException e) {
+            log.warn("[!] Virtual threads are not available on Java {}, using platform threads",
+                    System.getProperty("java.version"));
+
+            return null;
+        }
+    }
+
+    /**
+     * Исполнитель, пропускающий не больше {@code permits} задач одновременно.
+     * Разрешение берётся уже внутри задачи, поэтому поток Tomcat, принимающий соединения, не блокируется.
+     */
+    static class BoundedExecutor implements Executor {
+        private final Executor delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(Executor delegate, int permits) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+}
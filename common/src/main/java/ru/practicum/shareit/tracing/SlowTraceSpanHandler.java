@@ -0,0 +1,124 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Экспорт спанов в файл (Zipkin v2 JSON, по строке на спан) с решением по завершении запроса.
+ * <p>
+ * Спаны копятся до окончания локального корня (входящего HTTP-запроса).
+ * Трасса сохраняется целиком, если корень длился не меньше {@code shareit.tracing.slow-threshold-ms},
+ * иначе - с вероятностью {@code shareit.tracing.sample-rate}. Выбор по traceId одинаков в gateway и сервере,
+ * поэтому быстрые трассы сохраняются в обоих сервисах или ни в одном. <br/>
+ * Включается заданием {@code shareit.tracing.file} (переменная {@code SHAREIT_TRACING_FILE}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.tracing.file")
+public class SlowTraceSpanHandler extends SpanHandler implements DisposableBean {
+    private static final int SAMPLE_SCALE = 10_000;
+
+    private final long slowMicros;
+    private final long sampleBound;
+    private final int maxPendingTraces;
+    private final Map<Long, List<MutableSpan>> pending = new ConcurrentHashMap<>();
+    private final BufferedWriter writer;
+    // not a monitor: a virtual thread blocked on file I/O under synchronized pins its carrier
+    private final Lock writeLock = new ReentrantLock();
+
+    public SlowTraceSpanHandler(
+            @Value("${shareit.tracing.file}") Path file,
+            @Value("${shareit.tracing.slow-threshold-ms:500}") long slowThresholdMs,
+            @Value("${shareit.tracing.sample-rate:0.01}") double sampleRate,
+            @Value("${shareit.tracing.max-pending-traces:10000}") int maxPendingTraces) throws IOException {
+        this.slowMicros = slowThresholdMs * 1000;
+        this.sampleBound = Math.round(sampleRate * SAMPLE_SCALE);
+        this.maxPendingTraces = maxPendingTraces;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+
+            return true;
+        }
+        if (!context.isLocalRoot()) {
+            List<MutableSpan> spans = pending.get(context.localRootId());
+            if (spans == null && pending.size() < maxPendingTraces) {
+                spans = pending.computeIfAbsent(context.localRootId(), id -> new ArrayList<>());
+            }
+            if (spans != null) {
+                synchronized (spans) {
+                    spans.add(span);
+                }
+            }
+
+            return true;
+        }
+
+        List<MutableSpan> spans = pending.remove(context.localRootId());
+        if (isKept(context, span)) {
+            write(spans, span);
+        }
+
+        return true;
+    }
+
+    boolean isKept(TraceContext context, MutableSpan root) {
+        return root.finishTimestamp() - root.startTimestamp() >= slowMicros
+                || Long.remainderUnsigned(context.traceId(), SAMPLE_SCALE) < sampleBound;
+    }
+
+    private void write(List<MutableSpan> children, MutableSpan root) {
+        writeLock.lock();
+        try {
+            if (children != null) {
+                synchronized (children) {
+                    for (MutableSpan child : children) {
+                        writer.write(child.toString());
+                        writer.newLine();
+                    }
+                }
+            }
+            writer.write(root.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("[!] Failed to write trace {}: {}", root.traceId(), e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        writeLock.lock();
+        try {
+            writer.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadingConfigTest {
+
+    @Test
+    void newVirtualThreadExecutor_DependsOnRuntime() throws InterruptedException {
+        Executor executor = ThreadingConfig.newVirtualThreadExecutor("test-", 2);
+
+        if (Runtime.version().feature() < 21) {
+            assertNull(executor);
+
+            return;
+        }
+        assertNotNull(executor);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger virtual = new AtomicInteger();
+        executor.execute(() -> {
+            virtual.set(Thread.currentThread().getName().startsWith("test-") ? 1 : 0);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, virtual.get());
+    }
+
+    @Test
+    void boundedExecutor_LimitsConcurrentTasks() throws InterruptedException {
+        ExecutorService delegate = Executors.newFixedThreadPool(8);
+        ThreadingConfig.BoundedExecutor executor = new ThreadingConfig.BoundedExecutor(delegate, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        delegate.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.sampler.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowTraceSpanHandlerTest {
+    @TempDir
+    Path dir;
+
+    private Tracing tracing;
+    private SlowTraceSpanHandler handler;
+
+    private Tracer getTracer(long slowThresholdMs, double sampleRate) throws IOException {
+        handler = new SlowTraceSpanHandler(dir.resolve("traces.jsonl"), slowThresholdMs, sampleRate, 100);
+        tracing = Tracing.newBuilder()
+                .sampler(Sampler.ALWAYS_SAMPLE)
+                .addSpanHandler(handler)
+                .build();
+
+        return tracing.tracer();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        tracing.close();
+        handler.destroy();
+    }
+
+    private void trace(Tracer tracer, long rootDurationMicros) {
+        Span root = tracer.newTrace().name("GET /items").start(1_000);
+        Span child = tracer.newChild(root.context()).name("select").start(1_100);
+        child.finish(1_200);
+        root.finish(1_000 + rootDurationMicros);
+    }
+
+    private List<String> readLines() throws IOException {
+        return Files.readAllLines(dir.resolve("traces.jsonl"));
+    }
+
+    @Test
+    void end_SlowRoot_WritesWholeTrace() throws IOException {
+        Tracer tracer = getTracer(500, 0);
+
+        trace(tracer, 600_000);
+
+        List<String> lines = readLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"name\":\"select\""));
+        assertTrue(lines.get(1).contains("\"name\":\"GET /items\""));
+    }
+
+    @Test
+    void end_FastRootNotSampled_WritesNothing() throws IOException {
+        Tracer tracer = getTracer(500, 0);
+
+        trace(tracer, 100_000);
+
+        assertTrue(readLines().isEmpty());
+    }
+
+    @Test
+    void end_FastRootSampled_WritesWholeTrace() throws IOException {
+        Tracer tracer = getTracer(500, 1);
+
+        trace(tracer, 100_000);
+
+        assertEquals(2, readLines().size());
+    }
+}
@@ -0,0 +1,3 @@
+#!/bin/sh
+# Allows streaming replication connections for the read replica (docker-compose.replica.yml).
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
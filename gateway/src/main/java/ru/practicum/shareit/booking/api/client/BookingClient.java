@@ -3,10 +3,13 @@ package ru.practicum.shareit.booking.api.client;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
 import ru.practicum.shareit.booking.api.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
@@ -14,6 +17,7 @@ import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.valid.ValidPageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -47,13 +51,18 @@ public class BookingClient extends BaseClient {
 
     public ResponseEntity<Object> update(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
+                "bookingId", bookingId,
                 "approved", approved);
 
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return patch("/{bookingId}?approved={approved}", userId, parameters, null);
+    }
+
+    public ResponseEntity<Object> approveAll(long userId, List<BookingApprovalDto> decisions) {
+        return patch("/approve", userId, decisions);
     }
 
     public ResponseEntity<Object> getById(long userId, long bookingId) {
-        return get("/" + bookingId, userId);
+        return get("/{bookingId}", userId, Map.of("bookingId", bookingId));
     }
 
     public ResponseEntity<Object> getAllByUser(long userId, String stateIn, Integer from, Integer size) {
@@ -80,4 +89,11 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportAll(long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
 }
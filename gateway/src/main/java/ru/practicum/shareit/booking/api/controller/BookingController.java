@@ -12,12 +12,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.api.client.BookingClient;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
@@ -27,9 +32,12 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
  * <h3>Booking Controller</h3>
  * {@link #createBooking} Создание бронирования <br/>
  * {@link #updateStatusBooking} Изменить статус бронирования <br/>
+ * {@link #approveBookings} Изменить статус нескольких бронирований <br/>
  * {@link #getBooking}    Посмотреть бронирование <br/>
  * {@link #getAllBookingsForUser}  Посмотреть бронирования от имени пользователя <br/>
  * {@link #getAllBookingsForOwner} Посмотреть бронирования от имени владельца предмета <br/>
+ * {@link #getOwnerBookingsSummary} Сводка бронирований владельца предметов <br/>
+ * {@link #exportBookings} Выгрузить все бронирования пользователя (NDJSON) <br/>
  */
 @RestController
 @RequiredArgsConstructor
@@ -38,9 +46,12 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
 public class BookingController {
     private final String createBooking = "/bookings";
     private final String updateStatusBooking = "/bookings/{id}";
+    private final String approveBookings = "/bookings/approve";
     private final String getBooking = "/bookings/{id}";
     private final String getAllBookingsForUser = "/bookings";
     private final String getAllBookingsForOwner = "/bookings/owner";
+    private final String getOwnerBookingsSummary = "/bookings/owner/summary";
+    private final String exportBookings = "/bookings/export";
     private final BookingClient bookingClient;
 
     @PostMapping(createBooking)
@@ -63,6 +74,15 @@ public class BookingController {
         return bookingClient.update(userId, id, approved);
     }
 
+    @PatchMapping(approveBookings)
+    public ResponseEntity<Object> approveAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingApprovalDto> decisions) {
+        log.debug("PATCH {} - userId:{} - decisions:{}", approveBookings, userId, decisions);
+
+        return bookingClient.approveAll(userId, decisions);
+    }
+
     @GetMapping(getBooking)
     public ResponseEntity<Object> get(
             @RequestHeader(HEADER_USER_ID) Long userId,
@@ -99,4 +119,20 @@ public class BookingController {
 
         return bookingClient.getAllByOwner(userId, state, from, size);
     }
-}
\ No newline at end of file
+
+    @GetMapping(getOwnerBookingsSummary)
+    public ResponseEntity<Object> getOwnerSummary(
+            @RequestHeader(HEADER_USER_ID) Long userId) {
+        log.debug("GET {} - userId:{}", getOwnerBookingsSummary, userId);
+
+        return bookingClient.getOwnerSummary(userId);
+    }
+
+    @GetMapping(exportBookings)
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestHeader(HEADER_USER_ID) Long userId) {
+        log.debug("GET {} - userId:{}", exportBookings, userId);
+
+        return bookingClient.exportAll(userId);
+    }
+}
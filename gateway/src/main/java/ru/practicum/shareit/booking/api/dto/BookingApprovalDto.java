@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Just a class with data. Don't touch him.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalDto {
+    @NotNull(message = "Booking ID is null")
+    private Long id;
+
+    @NotNull(message = "Approved is null")
+    private Boolean approved;
+}
@@ -11,6 +11,7 @@ import ru.practicum.shareit.exception.StateException;
  *     <li>FUTURE - будущие бронирования</li>
  *     <li>WAITING - бронирования в ожидании решения от владельца предмета</li>
  *     <li>REJECTED - отказы в аренде от владельца предмета</li>
+ *     <li>CANCELED - отменённые арендатором или по истечении ожидания решения владельца</li>
  * </ul>
  */
 public enum BookingState {
@@ -19,7 +20,8 @@ public enum BookingState {
     FUTURE,
     PAST,
     REJECTED,
-    WAITING;
+    WAITING,
+    CANCELED;
 
     public static BookingState from(String stringState) {
         for (BookingState state : values()) {
@@ -11,6 +11,7 @@ import java.util.Optional;
  *     <li>FUTURE - будущие бронирования</li>
  *     <li>WAITING - бронирования в ожидании решения от владельца предмета</li>
  *     <li>REJECTED - отказы в аренде от владельца предмета</li>
+ *     <li>CANCELED - отменённые арендатором или по истечении ожидания решения владельца</li>
  * </ul>
  */
 public enum BookingFilterByTemplate {
@@ -19,7 +20,8 @@ public enum BookingFilterByTemplate {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED;
+    REJECTED,
+    CANCELED;
 
     public static Optional<BookingFilterByTemplate> from(String stringState) {
         for (BookingFilterByTemplate state : values()) {
@@ -6,12 +6,13 @@ package ru.practicum.shareit.booking.api.enums;
  *      <li>WAITING - ожидание подтверждения/отказа</li>
  *      <li>APPROVED - подтверждено владельцем</li>
  *      <li>REJECTED - отказано в аренде владельцем</li>
- *      <li>CANCELED - отменено пользователем</li>
+ *      <li>CANCELED - отменено пользователем или истёк срок ожидания решения владельца</li>
  * </ul>
  */
 
 public enum BookingStatus {
     WAITING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    CANCELED
 }
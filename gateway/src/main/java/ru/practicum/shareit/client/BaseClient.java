@@ -1,20 +1,31 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -81,6 +92,60 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * POST с типизированным ответом, для ответов, которые gateway обрабатывает сам.
+     *
+     * @throws HttpStatusCodeException ответ сервера с ошибкой
+     */
+    protected <T, R> R postForBody(String path, Long userId, T body, ParameterizedTypeReference<R> responseType) {
+        return rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, defaultHeaders(userId)), responseType)
+                .getBody();
+    }
+
+    /**
+     * GET с потоковой передачей ответа: тело сервера пересылается клиенту по мере чтения, без буферизации.
+     * Ответ сервера с ошибкой возвращается с тем же статусом и телом.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType mediaType) {
+        ClientHttpResponse response;
+        HttpStatus status;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            request.getHeaders().set(HEADER_USER_ID, String.valueOf(userId));
+            response = request.execute();
+            status = response.getStatusCode();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+
+        if (!status.is2xxSuccessful()) {
+            try (response) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+
+                return ResponseEntity.status(status)
+                        .contentType(response.getHeaders().getContentType())
+                        .body(out -> out.write(body));
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error reading error response: " + e.getMessage(), e);
+            }
+        }
+
+        return ResponseEntity.status(status)
+                .contentType(mediaType)
+                .body(out -> {
+                    try (response; InputStream in = response.getBody()) {
+                        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                            out.flush();
+                        }
+                    }
+                });
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.exception;
 
+/**
+ * Ожидаемая ошибка клиента: без стека, см. {@link ru.practicum.shareit.exception.controller.ExceptionController}.
+ */
 public class RentalPeriodException extends RuntimeException {
     public RentalPeriodException() {
+        super(null, null, false, false);
     }
 
     public RentalPeriodException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public RentalPeriodException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
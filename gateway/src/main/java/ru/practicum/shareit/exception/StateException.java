@@ -1,7 +1,10 @@
 package ru.practicum.shareit.exception;
 
+/**
+ * Ожидаемая ошибка клиента: без стека, см. {@link ru.practicum.shareit.exception.controller.ExceptionController}.
+ */
 public class StateException extends RuntimeException {
     public StateException(String message) {
-        super("Unknown state: " + message);
+        super("Unknown state: " + message, null, false, false);
     }
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.exception.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,21 +16,38 @@ import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.exception.entity.ErrorException;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 
+/**
+ * Ошибки клиента (4xx) - ожидаемый поток, а не сбой: исключения без стека,
+ * счётчик {@code shareit.errors} (теги {@code exception}, {@code status}) и запись в лог WARN
+ * не чаще {@code shareit.errors.log-per-second} раз в секунду на тип исключения.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ExceptionController {
-    private void logError(String message, Throwable e) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTraceString = sw.toString().replace(", ", ",\n");
+    private final MeterRegistry meterRegistry;
+    private final int logPerSecond;
+    private final Map<Class<?>, ErrorLog> errors = new ConcurrentHashMap<>();
 
-        log.error("[!] Received the status {} Error: {}\n{}", HttpStatus.BAD_REQUEST, message, stackTraceString);
+    public ExceptionController(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.errors.log-per-second:10}") int logPerSecond) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.logPerSecond = logPerSecond;
+    }
+
+    private void logError(String message, RuntimeException e) {
+        ErrorLog errorLog = errors.computeIfAbsent(e.getClass(), type -> new ErrorLog(type));
+        errorLog.counter.increment();
+        long suppressed = errorLog.tryAcquire(System.currentTimeMillis() / 1000, logPerSecond);
+        if (suppressed >= 0) {
+            log.warn("[!] Received the status {} Error: {} ({}, suppressed: {})",
+                    BAD_REQUEST, message, e.getClass().getSimpleName(), suppressed);
+        }
     }
 
     @ExceptionHandler(RentalPeriodException.class)
@@ -64,4 +85,41 @@ public class ExceptionController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorException(400, message));
     }
+
+    /**
+     * Счётчик и окно логирования одного типа исключения.
+     */
+    private class ErrorLog {
+        private final Counter counter;
+        private long second;
+        private int logged;
+        private long suppressed;
+
+        ErrorLog(Class<?> type) {
+            this.counter = Counter.builder("shareit.errors")
+                    .tag("exception", type.getSimpleName())
+                    .tag("status", String.valueOf(BAD_REQUEST.value()))
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @return число подавленных записей с прошлой записи, {@code -1} - запись подавлена
+         */
+        synchronized long tryAcquire(long now, int limit) {
+            if (now != second) {
+                second = now;
+                logged = 0;
+            }
+            if (logged >= limit) {
+                suppressed++;
+
+                return -1;
+            }
+            logged++;
+            long result = suppressed;
+            suppressed = 0;
+
+            return result;
+        }
+    }
 }
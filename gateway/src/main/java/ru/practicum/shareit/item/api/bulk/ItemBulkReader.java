@@ -0,0 +1,214 @@
+package ru.practicum.shareit.item.api.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.valid.group.Create;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Разбор и проверка файла импорта предметов, построчно.
+ * <p>
+ * NDJSON ({@code application/x-ndjson}) - объект {@code ItemSimpleDto} на строку.
+ * CSV ({@code text/csv}) - первая строка заголовок с колонками {@code name, description, available, requestId}
+ * в любом порядке ({@code requestId} необязательна), значения в кавычках - по RFC 4180, без переводов строк.
+ * Пустые строки пропускаются, номера строк - как в файле, с 1.
+ */
+@Component
+public class ItemBulkReader {
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "available", "requestid");
+
+    private final ObjectReader itemReader;
+    private final Validator validator;
+    private final int maxLines;
+
+    public ItemBulkReader(ObjectMapper objectMapper,
+                          Validator validator,
+                          @Value("${shareit.item.bulk.max-lines:100000}") int maxLines) {
+        this.itemReader = objectMapper.readerFor(ItemSimpleDto.class);
+        this.validator = validator;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * @param body        тело запроса
+     * @param contentType NDJSON или CSV
+     * @return проверенные строки и ошибки по отклонённым строкам
+     */
+    public Lines read(InputStream body, MediaType contentType) throws IOException {
+        boolean csv = TEXT_CSV.includes(contentType);
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        Lines lines = new Lines();
+        int[] columns = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && columns == null) {
+                columns = readCsvHeader(line);
+                continue;
+            }
+            if (lines.valid.size() + lines.rejected.size() >= maxLines) {
+                throw new BadRequestException("Too many lines in import, max: " + maxLines);
+            }
+            try {
+                ItemSimpleDto item = csv ? readCsvLine(line, columns) : itemReader.readValue(line);
+                String error = validate(item);
+                if (error == null) {
+                    lines.valid.add(new ItemBulkDto(lineNumber, item.getName(), item.getDescription(),
+                            item.getAvailable(), item.getRequestId()));
+                } else {
+                    lines.rejected.add(ItemBulkResultDto.failed(lineNumber, error));
+                }
+            } catch (JsonProcessingException e) {
+                lines.rejected.add(ItemBulkResultDto.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+            } catch (IllegalArgumentException e) {
+                lines.rejected.add(ItemBulkResultDto.failed(lineNumber, e.getMessage()));
+            }
+        }
+        if (csv && columns == null) {
+            throw new BadRequestException("CSV header is missing");
+        }
+
+        return lines;
+    }
+
+    private String validate(ItemSimpleDto item) {
+        Set<ConstraintViolation<ItemSimpleDto>> violations = validator.validate(item, Create.class);
+        if (violations.isEmpty()) {
+
+            return null;
+        }
+
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * @return индекс колонки в строке CSV для каждого поля из {@link #CSV_COLUMNS}, {@code -1} - колонки нет
+     */
+    private static int[] readCsvHeader(String line) {
+        List<String> header = splitCsv(line);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            int field = CSV_COLUMNS.indexOf(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (field >= 0) {
+                columns[field] = i;
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            if (columns[i] < 0) {
+                throw new BadRequestException("CSV header must contain column: " + CSV_COLUMNS.get(i));
+            }
+        }
+
+        return columns;
+    }
+
+    private static ItemSimpleDto readCsvLine(String line, int[] columns) {
+        List<String> values = splitCsv(line);
+        String available = column(values, columns[2]);
+        String requestId = column(values, columns[3]);
+        if (available != null && !"true".equalsIgnoreCase(available) && !"false".equalsIgnoreCase(available)) {
+            throw new IllegalArgumentException("available: must be true or false");
+        }
+        Long request = null;
+        if (requestId != null) {
+            try {
+                request = Long.valueOf(requestId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("requestId: must be a number");
+            }
+        }
+
+        return ItemSimpleDto.builder()
+                .name(column(values, columns[0]))
+                .description(column(values, columns[1]))
+                .available(available == null ? null : Boolean.valueOf(available))
+                .requestId(request)
+                .build();
+    }
+
+    private static String column(List<String> values, int index) {
+        if (index < 0 || index >= values.size() || values.get(index).isEmpty()) {
+
+            return null;
+        }
+
+        return values.get(index);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+
+        return values;
+    }
+
+    /**
+     * Результат разбора: строки для сервера и отклонённые строки.
+     */
+    @Getter
+    public static class Lines {
+        private final List<ItemBulkDto> valid = new ArrayList<>();
+        private final List<ItemBulkResultDto> rejected = new ArrayList<>();
+    }
+}
@@ -1,45 +1,156 @@
 package ru.practicum.shareit.item.api.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResponseDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.valid.ValidPageable;
 
 import javax.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final ParameterizedTypeReference<List<ItemBulkResultDto>> BULK_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final int bulkChunkSize;
+    private final int bulkParallelism;
+    private final TaskExecutor taskExecutor;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit.item.bulk.chunk-size:5000}") int bulkChunkSize,
+                      @Value("${shareit.item.bulk.parallelism:4}") int bulkParallelism,
+                      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                      TaskExecutor taskExecutor,
+                      ObjectMapper objectMapper,
+                      RestTemplateBuilder builder) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                 .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                 .build());
+        this.bulkChunkSize = bulkChunkSize;
+        this.bulkParallelism = bulkParallelism;
+        this.taskExecutor = taskExecutor;
+        this.objectMapper = objectMapper;
     }
 
     public ResponseEntity<Object> create(long userId, ItemSimpleDto itemDto) {
         return post("", userId, itemDto);
     }
 
+    /**
+     * Проверенные строки импорта уходят на сервер пакетами по {@code shareit.item.bulk.chunk-size},
+     * до {@code shareit.item.bulk.parallelism} пакетов одновременно, каждый пакет - отдельная транзакция.
+     * Хотя бы один (возможно пустой) пакет отправляется всегда: сервер проверяет пользователя.
+     * Ошибка сервера прерывает импорт после текущей волны: ответ - со статусом сервера, его тело в {@code error},
+     * а в {@code results} - id уже созданных пакетов (они остаются).
+     *
+     * @param items    проверенные строки
+     * @param rejected строки, отклонённые gateway
+     */
+    public ResponseEntity<Object> createAll(long userId, List<ItemBulkDto> items, List<ItemBulkResultDto> rejected) {
+        List<List<ItemBulkDto>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size() || chunks.isEmpty(); from += bulkChunkSize) {
+            chunks.add(items.subList(from, Math.min(from + bulkChunkSize, items.size())));
+        }
+
+        List<ItemBulkResultDto> results = new ArrayList<>(items.size() + rejected.size());
+        results.addAll(rejected);
+        HttpStatusCodeException error = null;
+        for (int wave = 0; wave < chunks.size() && error == null; wave += bulkParallelism) {
+            List<CompletableFuture<List<ItemBulkResultDto>>> responses = new ArrayList<>();
+            for (List<ItemBulkDto> chunk : chunks.subList(wave, Math.min(wave + bulkParallelism, chunks.size()))) {
+                // already serialized: RestTemplate DEBUG log would otherwise print every row of the chunk
+                byte[] body = toJson(chunk);
+                responses.add(CompletableFuture.supplyAsync(
+                        () -> postForBody("/bulk", userId, body, BULK_RESULTS), taskExecutor));
+            }
+            // the whole wave is awaited: chunks committed next to the failed one are reported too
+            for (CompletableFuture<List<ItemBulkResultDto>> response : responses) {
+                try {
+                    results.addAll(response.join());
+                } catch (CompletionException e) {
+                    if (!(e.getCause() instanceof HttpStatusCodeException)) {
+                        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                    }
+                    if (error == null) {
+                        error = (HttpStatusCodeException) e.getCause();
+                    }
+                }
+            }
+        }
+        results.sort(Comparator.comparingInt(ItemBulkResultDto::getLine));
+        if (error != null) {
+
+            return ResponseEntity.status(error.getStatusCode())
+                    .body(ItemBulkResponseDto.interrupted(results, toErrorBody(error)));
+        }
+
+        return ResponseEntity.ok(ItemBulkResponseDto.of(results));
+    }
+
+    private Object toErrorBody(HttpStatusCodeException error) {
+        try {
+            JsonNode body = objectMapper.readTree(error.getResponseBodyAsByteArray());
+            if (body != null && !body.isMissingNode()) {
+
+                return body;
+            }
+        } catch (IOException e) {
+            // not JSON: passed as text
+        }
+        String text = error.getResponseBodyAsString();
+
+        return text.isEmpty() ? error.getStatusText() : text;
+    }
+
+    private byte[] toJson(List<ItemBulkDto> chunk) {
+        try {
+            return objectMapper.writeValueAsBytes(chunk);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
-        return patch("/" + itemId, userId, itemDto);
+        return patch("/{itemId}", userId, Map.of("itemId", itemId), itemDto);
     }
 
     public ResponseEntity<Object> get(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        return get("/{itemId}", userId, Map.of("itemId", itemId));
     }
 
     public ResponseEntity<Object> getAll(long userId, Integer from, Integer size) {
@@ -61,10 +172,31 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getTrending(long userId) {
+        return get("/trending", userId);
+    }
+
     public ResponseEntity<Object> createComment(long userId, Long itemId, @Valid CommentSimpleDto commentSimpleDto) {
         commentSimpleDto.setItemId(itemId);
         commentSimpleDto.setAuthorId(userId);
         commentSimpleDto.setCreated(LocalDateTime.now());
-        return post("/" + itemId + "/comment", userId, commentSimpleDto);
+        return post("/{itemId}/comment", userId, Map.of("itemId", itemId), commentSimpleDto);
+    }
+
+    public ResponseEntity<Object> getComments(long userId, long itemId, Long cursor, Integer size) {
+        if (cursor == null) {
+
+            return get("/{itemId}/comments?size={size}", userId, Map.of("itemId", itemId, "size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "cursor", cursor,
+                "size", size);
+
+        return get("/{itemId}/comments?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportAll(long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 }
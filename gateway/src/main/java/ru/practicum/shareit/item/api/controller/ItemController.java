@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.api.bulk.ItemBulkReader;
 import ru.practicum.shareit.item.api.client.ItemClient;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
@@ -19,8 +23,11 @@ import ru.practicum.shareit.valid.group.Create;
 import ru.practicum.shareit.valid.group.Update;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
 
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
@@ -29,23 +36,32 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
 /**
  * <h3>Item Controller</h3>
  * {@link #createItem} Создать предмет <br/>
+ * {@link #createItems} Создать предметы из файла NDJSON или CSV <br/>
  * {@link #updateItem} Изменить предмет <br/>
  * {@link #getItem} Посмотреть предмет <br/>
  * {@link #searchItem} Поиск предмета <br/>
  * {@link #getAllItems} Посмотреть все предметы <br/>
  * {@link #createComment} Оставить комментарий для предмета <br/>
+ * {@link #getComments} Посмотреть комментарии предмета (постранично, по курсору) <br/>
+ * {@link #exportItems} Выгрузить все предметы владельца (NDJSON) <br/>
+ * {@link #getTrending} Популярные предметы за день, неделю и месяц <br/>
  */
 @RestController
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
     private final String createItem = "/items";
+    private final String createItems = "/items/bulk";
     private final String updateItem = "/items/{id}";
     private final String getItem = "/items/{id}";
     private final String searchItem = "/items/search";
     private final String getAllItems = "/items";
     private final String createComment = "/items/{id}/comment";
+    private final String getComments = "/items/{id}/comments";
+    private final String exportItems = "/items/export";
+    private final String getTrending = "/items/trending";
     private final ItemClient itemClient;
+    private final ItemBulkReader itemBulkReader;
 
 
     @PostMapping(createItem)
@@ -56,6 +72,16 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(path = createItems, consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<Object> createAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ItemBulkReader.Lines lines = itemBulkReader.read(body, contentType);
+
+        return itemClient.createAll(userId, lines.getValid(), lines.getRejected());
+    }
+
     @PatchMapping(updateItem)
     public ResponseEntity<Object> update(
             @RequestHeader(HEADER_USER_ID) Long userId,
@@ -85,6 +111,13 @@ public class ItemController {
         return itemClient.search(userId, text, from, size);
     }
 
+    @GetMapping(getTrending)
+    public ResponseEntity<Object> getTrending(
+            @RequestHeader(HEADER_USER_ID) Long userId) {
+
+        return itemClient.getTrending(userId);
+    }
+
     @GetMapping(getAllItems)
     public ResponseEntity<Object> getAll(
             @RequestHeader(HEADER_USER_ID) Long userId,
@@ -104,4 +137,22 @@ public class ItemController {
 
         return itemClient.createComment(userId, id, commentSimpleDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping(getComments)
+    public ResponseEntity<Object> getComments(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @PathVariable long id,
+            @RequestParam(required = false) @Positive Long cursor,
+            @RequestParam(required = false, defaultValue = SIZE)
+            @Positive @Max(100) Integer size) {
+
+        return itemClient.getComments(userId, id, cursor, size);
+    }
+
+    @GetMapping(exportItems)
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestHeader(HEADER_USER_ID) Long userId) {
+
+        return itemClient.exportAll(userId);
+    }
+}
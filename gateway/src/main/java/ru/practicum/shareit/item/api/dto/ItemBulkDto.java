@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO-Class Item for bulk import: проверенная строка файла, передаётся серверу.
+ * <p>
+ * Fields: <br/>
+ * {@code line} Номер строки в загруженном файле <br/>
+ * {@code name} Name item <br/>
+ * {@code description} Description item <br/>
+ * {@code available} Available item <br/>
+ * {@code requestId} RequestId
+ */
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBulkDto {
+    private int line;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Итог импорта: число созданных и отклонённых строк, результат по каждой строке в порядке файла.
+ * <p>
+ * Если сервер отклонил пакет, {@code error} - его ответ, а {@code results} - строки из уже созданных
+ * пакетов и отклонённые gateway; строк прерванного и неотправленных пакетов в {@code results} нет.
+ */
+
+@Getter
+@AllArgsConstructor
+public class ItemBulkResponseDto {
+    private final int created;
+    private final int failed;
+    private final List<ItemBulkResultDto> results;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Object error;
+
+    public static ItemBulkResponseDto of(List<ItemBulkResultDto> results) {
+        return interrupted(results, null);
+    }
+
+    public static ItemBulkResponseDto interrupted(List<ItemBulkResultDto> results, Object error) {
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+
+        return new ItemBulkResponseDto(results.size() - failed, failed, results, error);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат импорта одной строки: {@code id} созданного предмета либо {@code error}.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBulkResultDto {
+    private int line;
+    private Long id;
+    private String error;
+
+    public static ItemBulkResultDto failed(int line, String error) {
+        return new ItemBulkResultDto(line, null, error);
+    }
+}
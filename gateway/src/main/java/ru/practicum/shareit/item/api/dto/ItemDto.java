@@ -34,5 +34,6 @@ public class ItemDto {
     private BookingItemDto lastBooking;
     private BookingItemDto nextBooking;
     private List<ru.practicum.shareit.item.api.dto.CommentDto> comments;
+    private Long commentsCount;
     private Long requestId;
 }
@@ -44,6 +44,6 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getById(long requesterId, long requestId) {
-        return get("/" + requestId, requesterId);
+        return get("/{requestId}", requesterId, Map.of("requestId", requestId));
     }
 }
@@ -12,6 +12,7 @@ import ru.practicum.shareit.user.api.dto.UserDto;
 import ru.practicum.shareit.user.api.dto.UserSimpleDto;
 
 import javax.validation.Valid;
+import java.util.Map;
 
 @Service
 public class UserClient extends BaseClient {
@@ -31,11 +32,11 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> update(long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+        return patch("/{userId}", null, Map.of("userId", userId), userDto);
     }
 
     public ResponseEntity<Object> getById(long userId) {
-        return get("/" + userId);
+        return get("/{userId}", null, Map.of("userId", userId));
     }
 
     public ResponseEntity<Object> getAll() {
@@ -43,6 +44,6 @@ public class UserClient extends BaseClient {
     }
 
     public void delete(long userId) {
-        delete("/" + userId);
+        delete("/{userId}", null, Map.of("userId", userId));
     }
 }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class BaseClientTest {
+    private static final String NDJSON = "{\"id\":1}\n{\"id\":2}\n";
+
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://shareit-server/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    void stream_whenOk_thenBodyCopiedWithMediaType() throws IOException {
+        server.expect(requestTo("http://shareit-server/items/export"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HEADER_USER_ID, "1"))
+                .andExpect(header("Accept", "application/x-ndjson, application/json"))
+                .andRespond(withSuccess(NDJSON, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export", 1L, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(NDJSON, write(response));
+        server.verify();
+    }
+
+    @Test
+    void stream_whenServerError_thenStatusAndBodyPassedThrough() throws IOException {
+        String error = "{\"error\":\"User not found\"}";
+        server.expect(requestTo("http://shareit-server/items/export"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export", 1L, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(error, write(response));
+    }
+
+    @Test
+    void stream_whenServerUnavailable_thenResourceAccessException() {
+        server.expect(requestTo("http://shareit-server/items/export"))
+                .andRespond(withException(new IOException("Connection refused")));
+
+        assertThrows(ResourceAccessException.class,
+                () -> client.stream("/export", 1L, MediaType.APPLICATION_NDJSON));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        assertNotNull(response.getBody());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item.api.bulk;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.item.api.bulk.ItemBulkReader.TEXT_CSV;
+
+class ItemBulkReaderTest {
+    private final ItemBulkReader reader = reader(100);
+
+    @Test
+    void splitCsv_QuotedValues_CommasAndEscapedQuotesKept() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), ItemBulkReader.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of("", "x"), ItemBulkReader.splitCsv(",x"));
+        assertEquals(List.of("\""), ItemBulkReader.splitCsv("\"\"\"\""));
+    }
+
+    @Test
+    void splitCsv_UnterminatedQuote_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ItemBulkReader.splitCsv("a,\"b"));
+    }
+
+    @Test
+    void read_Csv_HeaderInAnyOrder_MappedByName() throws IOException {
+        ItemBulkReader.Lines lines = read("Available,requestId,NAME,description\n"
+                + "true,7,Drill,\"Cordless, 18V\"\n"
+                + "\n"
+                + "false,,Saw,Hand saw\n", TEXT_CSV);
+
+        assertEquals(List.of(
+                        new ItemBulkDto(2, "Drill", "Cordless, 18V", true, 7L),
+                        new ItemBulkDto(4, "Saw", "Hand saw", false, null)),
+                lines.getValid());
+        assertEquals(List.of(), lines.getRejected());
+    }
+
+    @Test
+    void read_Csv_WithoutRequestIdColumn() throws IOException {
+        ItemBulkReader.Lines lines = read("name,description,available\nDrill,Cordless,true\n", TEXT_CSV);
+
+        assertEquals(List.of(new ItemBulkDto(2, "Drill", "Cordless", true, null)), lines.getValid());
+    }
+
+    @Test
+    void read_Csv_InvalidValues_RejectedByLine() throws IOException {
+        ItemBulkReader.Lines lines = read("name,description,available,requestId\n"
+                + "Drill,Cordless,yes,\n"
+                + "Saw,Hand saw,true,abc\n"
+                + "Hammer,\"Steel\n"
+                + "Axe,Sharp,true,\n", TEXT_CSV);
+
+        assertEquals(List.of(new ItemBulkDto(5, "Axe", "Sharp", true, null)), lines.getValid());
+        assertEquals(List.of(
+                        ItemBulkResultDto.failed(2, "available: must be true or false"),
+                        ItemBulkResultDto.failed(3, "requestId: must be a number"),
+                        ItemBulkResultDto.failed(4, "Unterminated quoted value")),
+                lines.getRejected());
+    }
+
+    @Test
+    void read_Csv_HeaderWithoutRequiredColumn_Throws() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> read("name,available\nDrill,true\n", TEXT_CSV));
+
+        assertEquals("CSV header must contain column: description", e.getMessage());
+    }
+
+    @Test
+    void read_Csv_Empty_Throws() {
+        assertThrows(BadRequestException.class, () -> read("\n\n", TEXT_CSV));
+    }
+
+    @Test
+    void read_Ndjson_ValidInvalidJsonAndConstraintViolations() throws IOException {
+        ItemBulkReader.Lines lines = read("{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}\n"
+                + "{\"name\":\"Saw\",\"description\":\n"
+                + "\n"
+                + "{\"name\":\" \",\"description\":\"Hand saw\",\"available\":false,\"requestId\":3}\n"
+                + "{\"name\":\"Axe\",\"description\":\"Sharp\",\"available\":true,\"requestId\":3}\n",
+                MediaType.APPLICATION_NDJSON);
+
+        assertEquals(List.of(
+                        new ItemBulkDto(1, "Drill", "Cordless", true, null),
+                        new ItemBulkDto(5, "Axe", "Sharp", true, 3L)),
+                lines.getValid());
+        assertEquals(2, lines.getRejected().size());
+        assertEquals(2, lines.getRejected().get(0).getLine());
+        assertTrue(lines.getRejected().get(0).getError().startsWith("Invalid JSON: "));
+        assertEquals(4, lines.getRejected().get(1).getLine());
+        assertTrue(lines.getRejected().get(1).getError().startsWith("name: "));
+    }
+
+    @Test
+    void read_Ndjson_CharsetFromContentType() throws IOException {
+        Charset cp1251 = Charset.forName("windows-1251");
+        ItemBulkReader.Lines lines = reader.read(new ByteArrayInputStream(
+                        "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n".getBytes(cp1251)),
+                new MediaType(MediaType.APPLICATION_NDJSON, cp1251));
+
+        assertEquals(List.of(new ItemBulkDto(1, "Дрель", "Ударная", true, null)), lines.getValid());
+    }
+
+    @Test
+    void read_MoreThanMaxLines_Throws() throws IOException {
+        ItemBulkReader limited = reader(2);
+        String line = "{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}\n";
+
+        ItemBulkReader.Lines lines = limited.read(ndjson(line + "\n" + "{}\n"), MediaType.APPLICATION_NDJSON);
+        assertEquals(1, lines.getValid().size());
+        assertEquals(1, lines.getRejected().size());
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> limited.read(ndjson(line + line + "{}\n"), MediaType.APPLICATION_NDJSON));
+        assertEquals("Too many lines in import, max: 2", e.getMessage());
+    }
+
+    private ItemBulkReader.Lines read(String body, MediaType contentType) throws IOException {
+        return reader.read(ndjson(body), contentType);
+    }
+
+    private static ByteArrayInputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ItemBulkReader reader(int maxLines) {
+        // as configured by JacksonAutoConfiguration: DTOs with @Builder only have an all-args constructor
+        return new ItemBulkReader(Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                .build(),
+                Validation.buildDefaultValidatorFactory().getValidator(), maxLines);
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.api.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.test.web.client.UnorderedRequestExpectationManager;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResponseDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class ItemClientTest {
+    private static final String BULK_URL = "http://shareit-server/items/bulk";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+    private MockRestServiceServer server;
+    private ItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        taskExecutor.setCorePoolSize(4);
+        taskExecutor.initialize();
+        MockServerRestTemplateCustomizer customizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        // chunks of 2 rows, 2 chunks per wave
+        client = new ItemClient("http://shareit-server", 2, 2, taskExecutor, objectMapper,
+                new RestTemplateBuilder(customizer));
+        server = customizer.getServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    void createAll_ChunksSentInParallelWaves_ResultsMergedInFileOrder() {
+        // both chunks of the first wave must be in flight together to pass the barrier
+        CyclicBarrier firstWave = new CyclicBarrier(2);
+        expectChunk(1, awaiting(firstWave, created(1, 2)));
+        expectChunk(3, awaiting(firstWave, created(3, 4)));
+        expectChunk(6, created(6));
+
+        ResponseEntity<Object> response = client.createAll(7L, items(1, 2, 3, 4, 6),
+                List.of(ItemBulkResultDto.failed(5, "name: must not be blank")));
+
+        server.verify();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ItemBulkResponseDto body = (ItemBulkResponseDto) response.getBody();
+        assertEquals(5, body.getCreated());
+        assertEquals(1, body.getFailed());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), body.getResults().stream()
+                .map(ItemBulkResultDto::getLine).collect(Collectors.toList()));
+        assertEquals(Long.valueOf(106), body.getResults().get(5).getId());
+        assertNull(body.getError());
+    }
+
+    @Test
+    void createAll_NoValidRows_EmptyChunkSentForUserCheck() {
+        server.expect(requestTo(BULK_URL))
+                .andExpect(jsonPath("$.length()").value(0))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.createAll(7L, List.of(),
+                List.of(ItemBulkResultDto.failed(1, "Invalid JSON: ...")));
+
+        server.verify();
+        ItemBulkResponseDto body = (ItemBulkResponseDto) response.getBody();
+        assertEquals(0, body.getCreated());
+        assertEquals(1, body.getFailed());
+    }
+
+    @Test
+    void createAll_ServerRejectsChunk_StatusPassedThrough_CreatedIdsReturned() {
+        expectChunk(1, created(1, 2));
+        expectChunk(3, withStatus(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\":\"ItemRequest not found\"}"));
+        server.expect(never(), requestTo(BULK_URL))
+                .andExpect(jsonPath("$[0].line").value(5));
+
+        ResponseEntity<Object> response = client.createAll(7L, items(1, 2, 3, 4, 5), List.of());
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        ItemBulkResponseDto body = (ItemBulkResponseDto) response.getBody();
+        assertEquals(2, body.getCreated());
+        assertEquals(List.of(new ItemBulkResultDto(1, 101L, null), new ItemBulkResultDto(2, 102L, null)),
+                body.getResults());
+        JsonNode error = assertInstanceOf(JsonNode.class, body.getError());
+        assertEquals("ItemRequest not found", error.get("error").asText());
+    }
+
+    @Test
+    void createAll_ServerErrorWithoutJson_BodyPassedAsText() {
+        expectChunk(1, withStatus(HttpStatus.BAD_GATEWAY).body("upstream down"));
+
+        ResponseEntity<Object> response = client.createAll(7L, items(1), List.of());
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+        ItemBulkResponseDto body = (ItemBulkResponseDto) response.getBody();
+        assertEquals(0, body.getCreated());
+        assertEquals("upstream down", body.getError());
+    }
+
+    private void expectChunk(int firstLine, ResponseCreator response) {
+        server.expect(requestTo(BULK_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HEADER_USER_ID, "7"))
+                .andExpect(jsonPath("$[0].line").value(firstLine))
+                .andRespond(response);
+    }
+
+    /**
+     * Ответ сервера: предмет с id {@code 100 + line} на каждую строку пакета.
+     */
+    private ResponseCreator created(int... lines) {
+        String results = IntStream.of(lines)
+                .mapToObj(line -> "{\"line\":" + line + ",\"id\":" + (100 + line) + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        return withSuccess(results, MediaType.APPLICATION_JSON);
+    }
+
+    private static ResponseCreator awaiting(CyclicBarrier barrier, ResponseCreator response) {
+        return request -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("Chunks of a wave were not sent in parallel", e);
+            }
+            return response.createResponse(request);
+        };
+    }
+
+    private static List<ItemBulkDto> items(int... lines) {
+        return IntStream.of(lines)
+                .mapToObj(line -> new ItemBulkDto(line, "item" + line, "description", true, null))
+                .collect(Collectors.toList());
+    }
+}
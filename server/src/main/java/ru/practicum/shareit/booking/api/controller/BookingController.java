@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,20 +14,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.api.service.BookingService;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.export.NdjsonExport;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.practicum.shareit.constants.Constants.APPROVE_BOOKINGS;
 import static ru.practicum.shareit.constants.Constants.CREATE_BOOKING;
+import static ru.practicum.shareit.constants.Constants.EXPORT_BOOKINGS;
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_OWNER;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_USER;
 import static ru.practicum.shareit.constants.Constants.GET_BOOKING;
+import static ru.practicum.shareit.constants.Constants.GET_OWNER_BOOKINGS_SUMMARY;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.SIZE;
 import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKING;
@@ -69,6 +79,23 @@ public class BookingController {
         return service.update(userId, id, approved);
     }
 
+    /**
+     * Пакетное подтверждение или отклонение запросов на бронирование.<br/>
+     * Может быть выполнено только владельцем вещей.<br/>
+     * Для каждого ID возвращается новый статус либо причина отказа.
+     *
+     * @param userId    user ID - Owner
+     * @param decisions Booking ID + approved (true = APPROVED / false = REJECTED)
+     */
+    @PatchMapping(APPROVE_BOOKINGS)
+    public List<BookingApprovalResultDto> approveAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody List<BookingApprovalDto> decisions) {
+        log.debug("[i] APPROVE_BOOKINGS\n USER_ID:{}, DECISIONS:{}", userId, decisions);
+
+        return service.approveAll(userId, decisions);
+    }
+
     /**
      * Получение данных о конкретном бронировании (включая его статус).<br/>
      * Может быть выполнено либо автором бронирования,<br/>
@@ -133,6 +160,36 @@ public class BookingController {
                 checkPageable(from, size));
     }
 
+    /**
+     * Сводка по бронированиям вещей владельца: количество по каждому состоянию,
+     * загрузка на неделю вперёд и самые бронируемые вещи.
+     *
+     * @param ownerId User ID - Owner
+     */
+    @GetMapping(GET_OWNER_BOOKINGS_SUMMARY)
+    public BookingSummaryDto getOwnerSummary(
+            @RequestHeader(HEADER_USER_ID) Long ownerId) {
+        log.debug("[i] GET_OWNER_BOOKINGS_SUMMARY\n OWNER_ID:{}", ownerId);
+
+        return service.getOwnerSummary(ownerId, LocalDateTime.now());
+    }
+
+    /**
+     * Вся история бронирований пользователя одним потоком NDJSON (без пагинации).
+     *
+     * @param bookerId User ID - Booker
+     */
+    @GetMapping(EXPORT_BOOKINGS)
+    public ResponseEntity<StreamingResponseBody> exportAllByUser(
+            @RequestHeader(HEADER_USER_ID) Long bookerId) {
+        log.debug("[i] EXPORT_BOOKINGS\n BOOKER_ID:{}", bookerId);
+        NdjsonExport export = service.exportAllByUser(bookerId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(export::writeTo);
+    }
+
     public static Pageable checkPageable(Integer from, Integer size) {
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Pageable incorrect");
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Решение владельца по одному бронированию в пакетном подтверждении.
+ * <p>
+ * {@code id} Booking ID <br/>
+ * {@code approved} true = APPROVED / false = REJECTED <br/>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalDto {
+    private Long id;
+    private Boolean approved;
+}
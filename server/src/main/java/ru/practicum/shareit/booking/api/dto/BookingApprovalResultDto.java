@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+/**
+ * Результат пакетного подтверждения для одного бронирования.
+ * <p>
+ * {@code id} Booking ID <br/>
+ * {@code status} Статус бронирования после обработки (null, если бронирование не найдено) <br/>
+ * {@code error} Причина отказа (null, если статус изменён) <br/>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalResultDto {
+    private Long id;
+    private BookingStatus status;
+    private String error;
+}
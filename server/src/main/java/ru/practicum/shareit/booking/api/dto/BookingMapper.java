@@ -11,6 +11,7 @@ public interface BookingMapper {
     BookingMapper INSTANCE = Mappers.getMapper(BookingMapper.class);
 
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
     @Mapping(target = "item.id", source = "dto.itemId")
     @Mapping(target = "booker.id", source = "bookerId")
     Booking toEntity(BookingSimpleDto dto, Long bookerId);
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сводка бронирований вещей владельца.
+ * <p>
+ * {@code states} Количество бронирований по каждому {@link BookingState} <br/>
+ * {@code upcomingWeek} Бронирования (WAITING, APPROVED), начинающиеся в ближайшие 7 дней <br/>
+ * {@code topItems} Вещи с наибольшим количеством бронирований <br/>
+ * {@code countedTo} Время, на которое точны CURRENT, PAST и FUTURE (null - счётчики ещё не построены) <br/>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSummaryDto {
+    private Map<BookingState, Long> states;
+    private Long upcomingWeek;
+    private List<ItemDto> topItems;
+    private LocalDateTime countedTo;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemDto {
+        private Long id;
+        private String name;
+        private Long bookings;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.api.eligibility;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+
+/**
+ * Индекс права на комментарий: пары (вещь, арендатор) с завершённым подтверждённым бронированием.
+ * <p>
+ * Хранится в таблице {@code booking_eligibility} и в памяти ({@link LongPairLongMap}),
+ * поэтому проверка при создании комментария - одно обращение к хеш-таблице.
+ * Таблица обновляется в транзакции подтверждения бронирования, память - после commit.
+ * Промах в памяти проверяется по таблице (изменения с других экземпляров сервера).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEligibilityIndex {
+    private static final long NOT_ELIGIBLE = Long.MAX_VALUE;
+
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongPairLongMap eligibleFrom = new LongPairLongMap(1024);
+
+    /**
+     * Загружает таблицу в память. Дополнение таблицы из бронирований (чтение всей {@code bookings})
+     * выполняется только при первом старте на этой БД.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int added = bookingRepository.backfillEligibility();
+        bookingRepository.forEachEligibility(this::remember);
+        if (added < 0) {
+            log.info("[i] ELIGIBILITY INDEX LOADED: {} pairs", size());
+        } else {
+            log.info("[i] ELIGIBILITY INDEX LOADED: {} pairs, {} backfilled", size(), added);
+        }
+    }
+
+    /**
+     * @param itemId   Item ID
+     * @param bookerId Booker ID
+     * @param now      Время комментария
+     * @return true - бронирование вещи арендатором подтверждено и закончилось к {@code now}
+     */
+    public boolean isEligible(Long itemId, Long bookerId, LocalDateTime now) {
+        long time = toEpochSecond(now);
+        lock.readLock().lock();
+        try {
+            if (eligibleFrom.get(itemId, bookerId, NOT_ELIGIBLE) <= time) {
+
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Optional<LocalDateTime> stored = bookingRepository.findEligibleFrom(itemId, bookerId);
+        stored.ifPresent(from -> remember(itemId, bookerId, from));
+
+        return stored.map(from -> !from.isAfter(now)).orElse(false);
+    }
+
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        if (APPROVED.equals(event.getStatus())) {
+            bookingRepository.markEligible(event.getItemId(), event.getBookerId(), event.getEnd());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterStatusChanged(BookingStatusChangedEvent event) {
+        if (APPROVED.equals(event.getStatus())) {
+            remember(event.getItemId(), event.getBookerId(), event.getEnd());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return eligibleFrom.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remember(long itemId, long bookerId, LocalDateTime from) {
+        lock.writeLock().lock();
+        try {
+            eligibleFrom.putMin(itemId, bookerId, toEpochSecondCeil(from));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Округление вверх: доли секунды не дают ложного положительного ответа,
+     * граничный случай уходит в точную проверку по таблице.
+     */
+    private static long toEpochSecondCeil(LocalDateTime time) {
+        return toEpochSecond(time) + (time.getNano() > 0 ? 1 : 0);
+    }
+}
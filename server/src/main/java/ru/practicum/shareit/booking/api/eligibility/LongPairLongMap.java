@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.api.eligibility;
+
+/**
+ * Open addressing hash map (long, long) -> long на примитивных массивах.
+ * <p>
+ * Ключи должны быть положительными (ID из последовательностей), 0 - пустая ячейка.
+ * Значение по ключу только уменьшается ({@link #putMin}). Удаления не поддерживаются.
+ * Не потокобезопасна.
+ */
+class LongPairLongMap {
+    private static final long EMPTY = 0L;
+
+    private long[] firstKeys;
+    private long[] secondKeys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    LongPairLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize)) << 2;
+        allocate(capacity);
+    }
+
+    /**
+     * @return Значение по ключу или {@code missing}
+     */
+    long get(long first, long second, long missing) {
+        int slot = slot(first, second);
+        while (firstKeys[slot] != EMPTY) {
+            if (firstKeys[slot] == first && secondKeys[slot] == second) {
+
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return missing;
+    }
+
+    /**
+     * Сохраняет минимум из текущего и нового значения.
+     */
+    void putMin(long first, long second, long value) {
+        if (first == EMPTY) {
+            throw new IllegalArgumentException("Key must not be 0");
+        }
+        int slot = slot(first, second);
+        while (firstKeys[slot] != EMPTY) {
+            if (firstKeys[slot] == first && secondKeys[slot] == second) {
+                values[slot] = Math.min(values[slot], value);
+
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        firstKeys[slot] = first;
+        secondKeys[slot] = second;
+        values[slot] = value;
+        if (++size * 2 > firstKeys.length) {
+            resize();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long first, long second) {
+        long hash = first * 0x9E3779B97F4A7C15L + second;
+        hash ^= hash >>> 32;
+        hash *= 0xBF58476D1CE4E5B9L;
+
+        return (int) (hash ^ (hash >>> 29)) & mask;
+    }
+
+    private void resize() {
+        long[] oldFirstKeys = firstKeys;
+        long[] oldSecondKeys = secondKeys;
+        long[] oldValues = values;
+        allocate(oldFirstKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldFirstKeys.length; i++) {
+            if (oldFirstKeys[i] != EMPTY) {
+                putMin(oldFirstKeys[i], oldSecondKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        firstKeys = new long[capacity];
+        secondKeys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+}
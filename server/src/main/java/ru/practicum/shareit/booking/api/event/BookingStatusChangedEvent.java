@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.api.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование создано или его статус изменён владельцем вещи.
+ * <p>
+ * Публикуется внутри транзакции создания или изменения статуса, только если UPDATE изменил строку
+ * (счётчики {@code booking_counters} и индекс права на комментарий считают переход из {@code previousStatus}).
+ * {@code previousStatus} - null для нового бронирования.
+ */
+@Value
+public class BookingStatusChangedEvent {
+    Long bookingId;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    BookingStatus previousStatus;
+    BookingStatus status;
+    LocalDateTime start;
+    LocalDateTime end;
+}
@@ -1,21 +1,28 @@
 package ru.practicum.shareit.booking.api.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.practicum.shareit.constants.Constants.EXPORT_FETCH_SIZE;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     /**
      * - - - - - - - - - - - - - - - - - - GET ALL LAST
      *
@@ -77,170 +84,100 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             Sort sortStartDesc);
 
     /**
-     * - - - - - - - - - - - - - - - - - - ALL OWNER
-     *
-     * @param id       Owner ID
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdOrderByStartDesc(Long id,
-                                                         Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - ALL BOOKER
-     *
-     * @param id       Booker ID
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.start DESC")
-    List<Booking> findAllByBooker_IdOrderByStartDesc(Long id,
-                                                     Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - APPROVED, WAITING OWNER
-     *
-     * @param id       Owner ID
-     * @param status   Booking status
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.status = ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-            Long id,
-            BookingStatus status,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - APPROVED, WAITING BOOKER
-     *
-     * @param id       Booker ID
-     * @param status   Booking status
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStatusOrderByStartDesc(
-            Long id,
-            BookingStatus status,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - PAST OWNER
+     * - - - - - - - - - - - - - - - - - - COUNT UPCOMING FOR OWNER
+     * Диапазон индекса {@code (owner_id, start_time)}, без соединения с вещами.
      *
      * @param ownerId  Owner ID
-     * @param end      Booking end
-     * @param pageable Pageable
-     * @return Bookings
+     * @param from     begin Booking, включительно
+     * @param to       begin Booking, не включительно
+     * @param statuses Booking statuses
+     * @return Количество бронирований
      */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.end < ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(
+    long countByOwnerIdAndStartGreaterThanEqualAndStartLessThanAndStatusIn(
             Long ownerId,
-            LocalDateTime end,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - PAST BOOKER
-     *
-     * @param bookerId Booker ID
-     * @param now      Booking end
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndEndBeforeOrderByStartDesc(
-            Long bookerId,
-            LocalDateTime now,
-            Pageable pageable);
+            LocalDateTime from,
+            LocalDateTime to,
+            Collection<BookingStatus> statuses);
 
     /**
-     * - - - - - - - - - - - - - - - - - - FUTURE BOOKER
+     * - - - - - - - - - - - - - - - - - - OWNER COUNTERS
      *
-     * @param id       Booker ID
-     * @param start    Booking start
-     * @param pageable Pageable
-     * @return Bookings
+     * @param ownerId Owner ID
+     * @return Количество бронирований вещей владельца по статусам и по времени (FUTURE, CURRENT, PAST)
      */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start > ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStartAfterOrderByStartDesc(
-            Long id,
-            LocalDateTime start,
-            Pageable pageable);
+    @Query(value = "select c.state as state, cast(sum(c.bookings) as bigint) as bookings " +
+            "from public.booking_counters c where c.owner_id = :ownerId group by c.state",
+            nativeQuery = true)
+    List<CounterView> findCountersByOwner(@Param("ownerId") Long ownerId);
 
     /**
-     * - - - - - - - - - - - - - - - - - - FUTURE OWNER
+     * - - - - - - - - - - - - - - - - - - OWNER TOP ITEMS
      *
-     * @param id       Owner ID
-     * @param start    Booking start
-     * @param pageable Pageable
-     * @return Bookings
+     * @param ownerId Owner ID
+     * @param limit   Количество вещей
+     * @return Вещи владельца, больше бронирований сначала
      */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start > ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(
-            Long id,
-            LocalDateTime start,
-            Pageable pageable);
+    @Query(value = "select c.item_id as id, i.name as name, c.total as bookings " +
+            "from (select item_id, cast(sum(bookings) as bigint) as total from public.booking_counters " +
+            "where owner_id = :ownerId and state in ('FUTURE', 'CURRENT', 'PAST') " +
+            "group by item_id order by total desc, item_id limit :limit) c " +
+            "join public.items i on i.id = c.item_id " +
+            "order by c.total desc, c.item_id",
+            nativeQuery = true)
+    List<ItemCountView> findTopItemsByOwner(
+            @Param("ownerId") Long ownerId,
+            @Param("limit") int limit);
 
     /**
-     * - - - - - - - - - - - - - - - - - - CURRENT BOOKER
+     * - - - - - - - - - - - - - - - - - - EXPORT BOOKER
+     * Курсор по всей истории арендатора: вещь и арендатор подгружаются тем же запросом.
+     * Читать в транзакции и закрывать поток.
      *
-     * @param bookerId Booker ID
-     * @param start    Booking start
-     * @param end      Booking end
-     * @param pageable Pageable
+     * @param id Booker ID
      * @return Bookings
      */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - CURRENT OWNER
-     *
-     * @param ownerId  Owner ID
-     * @param start    Booking start
-     * @param end      Booking end
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?3")
-    List<Booking> findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-            Long ownerId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select b from Booking b join fetch b.item i left join fetch i.request join fetch b.booker " +
+            "where b.booker.id = ?1 order by b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByBooker_IdOrderByStartDesc(Long id);
 
     /**
      * - - - - - - - - - - - - - - - - - - UPDATE STATUS RIGHT NOW
+     * <p>
+     * Только из WAITING: решение владельца не перезаписывает отмену по истечении ожидания
+     * и решение, принятое параллельно (в том числе через {@code approveAll}).
      *
      * @param status Booking status
      * @param id     Booking ID
+     * @return 1 - статус изменён, 0 - бронирование уже не в WAITING
      */
     @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Booking b set b.status = :status where b.id = :id")
-    void updateStatusById(
+    @Query("update Booking b set b.status = :status where b.id = :id " +
+            "and b.status = ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING")
+    int updateWaitingStatusById(
             @Param(value = "status") BookingStatus status,
             @Param(value = "id") @NonNull Long id);
 
     /**
-     * - - - - - - - - - - - - - - - - - - CHECK BOOKING FOR CREATE COMMENT
-     *
-     * @param itemId   Item ID
-     * @param bookerId Booker ID
-     * @param status   Booking Status
-     * @param end      finished Booking
-     * @return true/false
+     * Счётчик бронирований по статусу или по времени.
      */
-    @Query("select (count(b) > 0) from Booking b " +
-            "where b.item.id = :itemId and b.booker.id = :bookerId and b.status = :status and b.end <= :end")
-    boolean existsCompletedBookingByTheUserOfTheItem(
-            @Param("itemId") Long itemId,
-            @Param("bookerId") Long bookerId,
-            @Param("status") BookingStatus status,
-            @Param("end") LocalDateTime end);
+    interface CounterView {
+        String getState();
+
+        Long getBookings();
+    }
+
+    /**
+     * Вещь и количество её бронирований.
+     */
+    interface ItemCountView {
+        Long getId();
+
+        String getName();
+
+        Long getBookings();
+    }
 }
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface BookingRepositoryCustom {
+    /**
+     * - - - - - - - - - - - - - - - - - - FIND BY SPECIFICATION
+     * <p>
+     * Одна страница бронирований по условию из {@link BookingSpecifications}, новые сначала
+     * ({@code start desc, id desc}). Вещь, запрос вещи и арендатор подгружаются тем же запросом,
+     * количество строк не считается.
+     *
+     * @param specification Условие выборки
+     * @param pageable      Постранично
+     * @return Bookings
+     */
+    List<Booking> findAllMatching(Specification<Booking> specification, Pageable pageable);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - UPDATE STATUS BATCH FOR OWNER
+     * <p>
+     * Меняет статус только у бронирований в статусе WAITING,
+     * вещи которых принадлежат владельцу. Одно выражение на все ID (JDBC batch).
+     *
+     * @param ownerId  Owner ID
+     * @param statuses Booking ID -> new status
+     * @return IDs of updated bookings
+     */
+    Set<Long> updateWaitingStatusByOwner(Long ownerId, Map<Long, BookingStatus> statuses);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - CANCEL EXPIRED WAITING
+     * <p>
+     * Переводит в CANCELED не более {@code limit} бронирований в статусе WAITING,
+     * начало которых уже наступило. Строки блокируются с SKIP LOCKED (PostgreSQL),
+     * поэтому несколько экземпляров сервера не обрабатывают одни и те же бронирования.
+     *
+     * @param now   Точное время
+     * @param limit Размер пакета
+     * @return IDs of canceled bookings
+     */
+    List<Long> cancelExpiredWaiting(LocalDateTime now, int limit);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - BACKFILL OWNER
+     * <p>
+     * Заполняет {@code owner_id} владельцем вещи не более чем у {@code limit} бронирований,
+     * созданных до появления столбца. Строки блокируются как в {@link #cancelExpiredWaiting}.
+     *
+     * @param limit Размер пакета
+     * @return Количество обновлённых бронирований
+     */
+    int backfillOwnerIds(int limit);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - BUILD COUNTERS
+     * <p>
+     * Строит {@code booking_counters} по всем бронированиям, если счётчики ещё не построены
+     * (нет строки {@code booking_counters_watermark}). Время бронирований (FUTURE, CURRENT, PAST)
+     * считается на {@code countedTo}.
+     *
+     * @param countedTo Время, на которое точны счётчики по времени
+     * @return true - счётчики построены этим вызовом
+     */
+    boolean buildCounters(LocalDateTime countedTo);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - REBUILD COUNTERS
+     * <p>
+     * Пересчитывает построенные {@code booking_counters} по всем бронированиям на текущую отметку
+     * {@code counted_to}, исправляя расхождение с {@code bookings} (ошибка в учёте, ручные правки в БД).
+     * На PostgreSQL изменения бронирований ждут окончания пересчёта.
+     *
+     * @return true - счётчики пересчитаны, false - ещё не построены
+     */
+    boolean rebuildCounters();
+
+    /**
+     * - - - - - - - - - - - - - - - - - - COUNT BOOKING
+     * <p>
+     * Учитывает новое бронирование ({@code previousStatus == null}) или смену его статуса.
+     * Ничего не делает, пока счётчики не построены.
+     *
+     * @param ownerId        Owner ID
+     * @param itemId         Item ID
+     * @param previousStatus Прежний статус, null - новое бронирование
+     * @param status         Новый статус
+     * @param start          begin Booking
+     * @param end            finish Booking
+     */
+    void countBooking(Long ownerId, Long itemId, BookingStatus previousStatus, BookingStatus status,
+                      LocalDateTime start, LocalDateTime end);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - ADVANCE COUNTERS
+     * <p>
+     * Переносит между FUTURE, CURRENT и PAST бронирования, начавшиеся или закончившиеся
+     * после прошлой отметки, и сдвигает отметку на {@code countedTo}.
+     * Строка отметки блокируется, экземпляры сервера не сдвигают её одновременно.
+     *
+     * @param countedTo Новая отметка
+     * @return Количество перенесённых бронирований, -1 - счётчики не построены
+     */
+    int advanceCounters(LocalDateTime countedTo);
+
+    /**
+     * @return Время, на которое точны счётчики по времени
+     */
+    Optional<LocalDateTime> findCountedTo();
+
+    /**
+     * - - - - - - - - - - - - - - - - - - CHECK BOOKING FOR CREATE COMMENT
+     * <p>
+     * Пара (вещь, арендатор) становится допустимой для комментария с момента окончания
+     * самого раннего подтверждённого (APPROVED) бронирования. Время только уменьшается.
+     *
+     * @param itemId       Item ID
+     * @param bookerId     Booker ID
+     * @param eligibleFrom Окончание подтверждённого бронирования
+     */
+    void markEligible(Long itemId, Long bookerId, LocalDateTime eligibleFrom);
+
+    /**
+     * @param itemId   Item ID
+     * @param bookerId Booker ID
+     * @return Время, с которого арендатор может комментировать вещь
+     */
+    Optional<LocalDateTime> findEligibleFrom(Long itemId, Long bookerId);
+
+    /**
+     * Дополняет {@code booking_eligibility} парами из подтверждённых бронирований,
+     * которых в ней ещё нет. Выполняется один раз для БД (отметка в {@code job_marks}
+     * в той же транзакции), одновременно стартующие экземпляры ждут commit первого.
+     *
+     * @return Количество добавленных пар, -1 - уже выполнено
+     */
+    int backfillEligibility();
+
+    /**
+     * @param job Имя задачи
+     * @return true - задача отмечена выполненной в {@code job_marks}
+     */
+    boolean isJobDone(String job);
+
+    /**
+     * Отмечает задачу выполненной. На PostgreSQL другая транзакция с той же отметкой
+     * ждёт commit и получает false.
+     *
+     * @param job Имя задачи
+     * @return true - отмечена этим вызовом, false - уже была отмечена
+     */
+    boolean markJobDone(String job);
+
+    /**
+     * Чтение всей таблицы {@code booking_eligibility} без промежуточных коллекций.
+     *
+     * @param consumer Обработчик строки
+     */
+    void forEachEligibility(EligibilityConsumer consumer);
+
+    @FunctionalInterface
+    interface EligibilityConsumer {
+        void accept(long itemId, long bookerId, LocalDateTime eligibleFrom);
+    }
+}
@@ -0,0 +1,480 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.BOOKER;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.ID;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.ITEM;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.START;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.CURRENT;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.FUTURE;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.PAST;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.CANCELED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String UPDATE_WAITING_STATUS_BY_OWNER = "update public.bookings set status = ? " +
+            "where id = ? and status = 'WAITING' " +
+            "and item_id in (select i.id from public.items i where i.owner_id = ?)";
+
+    private static final String SELECT_EXPIRED_WAITING = "select id from public.bookings " +
+            "where status = 'WAITING' and start_time <= ? order by start_time limit ?";
+    private static final String CANCEL_WAITING_BY_IDS = "update public.bookings set status = 'CANCELED' " +
+            "where status = 'WAITING' and id in (:ids)";
+
+    private static final String SELECT_WITHOUT_OWNER = "select id from public.bookings b " +
+            "where owner_id is null and exists (select 1 from public.items i " +
+            "where i.id = b.item_id and i.owner_id is not null) limit ?";
+    private static final String UPDATE_OWNER_BY_IDS = "update public.bookings b " +
+            "set owner_id = (select i.owner_id from public.items i where i.id = b.item_id) " +
+            "where id in (:ids) and owner_id is null";
+
+    private static final String SELECT_COUNTED_TO = "select counted_to from public.booking_counters_watermark " +
+            "where id = 1";
+    private static final String INSERT_COUNTED_TO = "insert into public.booking_counters_watermark " +
+            "(id, counted_to) values (1, ?)";
+    private static final String UPDATE_COUNTED_TO = "update public.booking_counters_watermark " +
+            "set counted_to = ? where id = 1";
+    private static final String LOCK_BOOKINGS = "lock table public.bookings in share mode";
+    private static final String LOCK_BOOKINGS_EXCLUSIVE = "lock table public.bookings in exclusive mode";
+    private static final String DELETE_COUNTERS = "delete from public.booking_counters";
+    private static final String PHASE = "case when b.start_time > :countedTo then 'FUTURE' " +
+            "when b.break_time > :countedTo then 'CURRENT' else 'PAST' end";
+    private static final String BUILD_COUNTERS = "insert into public.booking_counters " +
+            "(owner_id, item_id, state, bookings) " +
+            "select c.owner_id, c.item_id, c.state, count(*) from (" +
+            "select i.owner_id, b.item_id, b.status as state from public.bookings b " +
+            "join public.items i on i.id = b.item_id where i.owner_id is not null " +
+            "union all " +
+            "select i.owner_id, b.item_id, " + PHASE + " from public.bookings b " +
+            "join public.items i on i.id = b.item_id where i.owner_id is not null) c " +
+            "group by c.owner_id, c.item_id, c.state";
+    private static final String SELECT_COUNTS_BY_IDS = "select c.owner_id, c.item_id, c.status, c.phase, count(*) " +
+            "from (select i.owner_id, b.item_id, b.status, " + PHASE + " as phase from public.bookings b " +
+            "join public.items i on i.id = b.item_id where b.id in (:ids) and i.owner_id is not null) c " +
+            "group by c.owner_id, c.item_id, c.status, c.phase";
+    private static final String SELECT_STARTED = "select c.owner_id, c.item_id, c.phase, count(*) from (" +
+            "select i.owner_id, b.item_id, case when b.break_time > :to then 'CURRENT' else 'PAST' end as phase " +
+            "from public.bookings b join public.items i on i.id = b.item_id " +
+            "where b.start_time > :from and b.start_time <= :to and i.owner_id is not null) c " +
+            "group by c.owner_id, c.item_id, c.phase";
+    private static final String SELECT_ENDED = "select i.owner_id, b.item_id, count(*) from public.bookings b " +
+            "join public.items i on i.id = b.item_id " +
+            "where b.break_time > :from and b.break_time <= :to and b.start_time <= :from " +
+            "and i.owner_id is not null group by i.owner_id, b.item_id";
+    private static final String UPDATE_COUNTER = "update public.booking_counters set bookings = bookings + ? " +
+            "where owner_id = ? and item_id = ? and state = ?";
+    private static final String INSERT_COUNTER = "insert into public.booking_counters " +
+            "(owner_id, item_id, state, bookings) values (?, ?, ?, ?)";
+    private static final String UPSERT_COUNTER = INSERT_COUNTER +
+            " on conflict (owner_id, item_id, state) do update " +
+            "set bookings = public.booking_counters.bookings + excluded.bookings";
+
+    private static final String UPDATE_ELIGIBILITY = "update public.booking_eligibility " +
+            "set eligible_from = least(eligible_from, ?) where item_id = ? and booker_id = ?";
+    private static final String INSERT_ELIGIBILITY = "insert into public.booking_eligibility " +
+            "(item_id, booker_id, eligible_from) values (?, ?, ?)";
+    private static final String UPSERT_ELIGIBILITY = INSERT_ELIGIBILITY +
+            " on conflict (item_id, booker_id) do update " +
+            "set eligible_from = least(public.booking_eligibility.eligible_from, excluded.eligible_from)";
+    private static final String SELECT_ELIGIBLE_FROM = "select eligible_from from public.booking_eligibility " +
+            "where item_id = ? and booker_id = ?";
+    private static final String BACKFILL_ELIGIBILITY = "insert into public.booking_eligibility " +
+            "(item_id, booker_id, eligible_from) " +
+            "select b.item_id, b.booker_id, min(b.break_time) from public.bookings b " +
+            "where b.status = 'APPROVED' and not exists (select 1 from public.booking_eligibility be " +
+            "where be.item_id = b.item_id and be.booker_id = b.booker_id) " +
+            "group by b.item_id, b.booker_id";
+    private static final String SELECT_ELIGIBILITY = "select item_id, booker_id, eligible_from " +
+            "from public.booking_eligibility";
+    private static final String ELIGIBILITY_BACKFILL_JOB = "booking-eligibility-backfill";
+
+    private static final String SELECT_JOB_DONE = "select count(*) from public.job_marks where name = ?";
+    private static final String INSERT_JOB_DONE = "insert into public.job_marks (name, done_at) " +
+            "values (?, current_timestamp)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private volatile Boolean postgreSql;
+
+    @Override
+    public List<Booking> findAllMatching(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        // внешнее соединение последним: H2 переставляет только соединения до него (начинает с bookings)
+        booking.fetch(BOOKER);
+        booking.fetch(ITEM).fetch("request", JoinType.LEFT);
+        Predicate predicate = specification.toPredicate(booking, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(booking.get(START)), cb.desc(booking.get(ID)));
+
+        TypedQuery<Booking> typedQuery = entityManager.createQuery(query).setHint(HINT_READONLY, true);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> updateWaitingStatusByOwner(Long ownerId, Map<Long, BookingStatus> statuses) {
+        if (statuses.isEmpty()) {
+
+            return Set.of();
+        }
+        List<Map.Entry<Long, BookingStatus>> rows = new ArrayList<>(statuses.entrySet());
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_WAITING_STATUS_BY_OWNER,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Map.Entry<Long, BookingStatus> row = rows.get(i);
+                        ps.setString(1, row.getValue().name());
+                        ps.setLong(2, row.getKey());
+                        ps.setLong(3, ownerId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+
+        Set<Long> updated = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated.add(rows.get(i).getKey());
+            }
+        }
+
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> cancelExpiredWaiting(LocalDateTime now, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_WAITING + getLockClause(),
+                Long.class, Timestamp.valueOf(now), limit);
+        if (ids.isEmpty()) {
+
+            return ids;
+        }
+        findCountedTo().ifPresent(countedTo -> {
+            List<CounterDelta> deltas = new ArrayList<>();
+            forEachCountByIds(ids, countedTo, (ownerId, itemId, status, phase, count) -> {
+                deltas.add(new CounterDelta(ownerId, itemId, WAITING.name(), -count));
+                deltas.add(new CounterDelta(ownerId, itemId, CANCELED.name(), count));
+            });
+            addToCounters(deltas);
+        });
+        new NamedParameterJdbcTemplate(jdbcTemplate)
+                .update(CANCEL_WAITING_BY_IDS, Map.of("ids", ids));
+
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public int backfillOwnerIds(int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_WITHOUT_OWNER + getLockClause(), Long.class, limit);
+        if (ids.isEmpty()) {
+
+            return 0;
+        }
+
+        return new NamedParameterJdbcTemplate(jdbcTemplate)
+                .update(UPDATE_OWNER_BY_IDS, Map.of("ids", ids));
+    }
+
+    @Override
+    @Transactional
+    public boolean buildCounters(LocalDateTime countedTo) {
+        Timestamp to = Timestamp.valueOf(countedTo);
+        if (isPostgreSql()) {
+            // другой экземпляр ждёт commit и не строит второй раз
+            if (jdbcTemplate.update(INSERT_COUNTED_TO + " on conflict (id) do nothing", to) == 0) {
+
+                return false;
+            }
+            // незавершённые транзакции бронирований ещё не видят отметку и не считают себя сами
+            jdbcTemplate.execute(LOCK_BOOKINGS);
+        } else {
+            if (findCountedTo().isPresent()) {
+
+                return false;
+            }
+            jdbcTemplate.update(INSERT_COUNTED_TO, to);
+        }
+        jdbcTemplate.update(DELETE_COUNTERS);
+        new NamedParameterJdbcTemplate(jdbcTemplate).update(BUILD_COUNTERS, Map.of("countedTo", to));
+
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildCounters() {
+        // advanceCounters ждёт commit и переносит уже от пересчитанных счётчиков
+        List<Timestamp> watermark = jdbcTemplate.queryForList(SELECT_COUNTED_TO + " for update", Timestamp.class);
+        if (watermark.isEmpty()) {
+
+            return false;
+        }
+        if (isPostgreSql()) {
+            // транзакции, уже изменившие бронирования (и заблокировавшие строки отмены), завершаются раньше,
+            // новые ждут commit; чтение не блокируется
+            jdbcTemplate.execute(LOCK_BOOKINGS_EXCLUSIVE);
+        }
+        jdbcTemplate.update(DELETE_COUNTERS);
+        new NamedParameterJdbcTemplate(jdbcTemplate).update(BUILD_COUNTERS, Map.of("countedTo", watermark.get(0)));
+
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void countBooking(Long ownerId, Long itemId, BookingStatus previousStatus, BookingStatus status,
+                             LocalDateTime start, LocalDateTime end) {
+        Optional<LocalDateTime> countedTo = findCountedTo();
+        if (countedTo.isEmpty()) {
+
+            return;
+        }
+        List<CounterDelta> deltas = new ArrayList<>();
+        if (previousStatus == null) {
+            deltas.add(new CounterDelta(ownerId, itemId, getPhase(start, end, countedTo.get()), 1));
+        } else {
+            deltas.add(new CounterDelta(ownerId, itemId, previousStatus.name(), -1));
+        }
+        deltas.add(new CounterDelta(ownerId, itemId, status.name(), 1));
+        addToCounters(deltas);
+    }
+
+    @Override
+    @Transactional
+    public int advanceCounters(LocalDateTime countedTo) {
+        List<Timestamp> watermark = jdbcTemplate.queryForList(SELECT_COUNTED_TO + " for update", Timestamp.class);
+        if (watermark.isEmpty()) {
+
+            return -1;
+        }
+        Timestamp from = watermark.get(0);
+        Timestamp to = Timestamp.valueOf(countedTo);
+        if (!to.after(from)) {
+
+            return 0;
+        }
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        List<CounterDelta> deltas = new ArrayList<>();
+        namedJdbcTemplate.query(SELECT_STARTED, parameters, rs -> {
+            deltas.add(new CounterDelta(rs.getLong(1), rs.getLong(2), FUTURE.name(), -rs.getLong(4)));
+            deltas.add(new CounterDelta(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4)));
+        });
+        namedJdbcTemplate.query(SELECT_ENDED, parameters, rs -> {
+            deltas.add(new CounterDelta(rs.getLong(1), rs.getLong(2), CURRENT.name(), -rs.getLong(3)));
+            deltas.add(new CounterDelta(rs.getLong(1), rs.getLong(2), PAST.name(), rs.getLong(3)));
+        });
+        addToCounters(deltas);
+        jdbcTemplate.update(UPDATE_COUNTED_TO, to);
+
+        return (int) deltas.stream().filter(delta -> delta.count > 0).mapToLong(delta -> delta.count).sum();
+    }
+
+    @Override
+    public Optional<LocalDateTime> findCountedTo() {
+        return jdbcTemplate.queryForList(SELECT_COUNTED_TO, Timestamp.class)
+                .stream()
+                .map(Timestamp::toLocalDateTime)
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public void markEligible(Long itemId, Long bookerId, LocalDateTime eligibleFrom) {
+        Timestamp from = Timestamp.valueOf(eligibleFrom);
+        if (isPostgreSql()) {
+            jdbcTemplate.update(UPSERT_ELIGIBILITY, itemId, bookerId, from);
+
+            return;
+        }
+        if (jdbcTemplate.update(UPDATE_ELIGIBILITY, from, itemId, bookerId) == 0) {
+            jdbcTemplate.update(INSERT_ELIGIBILITY, itemId, bookerId, from);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEligibleFrom(Long itemId, Long bookerId) {
+        return jdbcTemplate.query(SELECT_ELIGIBLE_FROM,
+                        (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(), itemId, bookerId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public int backfillEligibility() {
+        // отметка в той же транзакции: откат backfill снимает и её
+        if (!markJobDone(ELIGIBILITY_BACKFILL_JOB)) {
+
+            return -1;
+        }
+
+        return jdbcTemplate.update(BACKFILL_ELIGIBILITY);
+    }
+
+    @Override
+    public boolean isJobDone(String job) {
+        Long count = jdbcTemplate.queryForObject(SELECT_JOB_DONE, Long.class, job);
+
+        return count != null && count > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean markJobDone(String job) {
+        if (isPostgreSql()) {
+
+            return jdbcTemplate.update(INSERT_JOB_DONE + " on conflict (name) do nothing", job) > 0;
+        }
+        if (isJobDone(job)) {
+
+            return false;
+        }
+
+        return jdbcTemplate.update(INSERT_JOB_DONE, job) > 0;
+    }
+
+    @Override
+    public void forEachEligibility(EligibilityConsumer consumer) {
+        jdbcTemplate.query(SELECT_ELIGIBILITY, rs -> {
+            consumer.accept(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime());
+        });
+    }
+
+    private void forEachCountByIds(List<Long> ids, LocalDateTime countedTo, CountConsumer consumer) {
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(SELECT_COUNTS_BY_IDS,
+                Map.of("ids", ids, "countedTo", Timestamp.valueOf(countedTo)),
+                rs -> {
+                    consumer.accept(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5));
+                });
+    }
+
+    /**
+     * Строки счётчиков меняются в одном порядке во всех транзакциях - без взаимных блокировок.
+     */
+    private void addToCounters(List<CounterDelta> deltas) {
+        if (deltas.isEmpty()) {
+
+            return;
+        }
+        List<CounterDelta> rows = new ArrayList<>(deltas);
+        rows.sort(CounterDelta.ORDER);
+        if (isPostgreSql()) {
+            jdbcTemplate.batchUpdate(UPSERT_COUNTER, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.ownerId);
+                ps.setLong(2, row.itemId);
+                ps.setString(3, row.state);
+                ps.setLong(4, row.count);
+            });
+
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_COUNTER, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.count);
+            ps.setLong(2, row.ownerId);
+            ps.setLong(3, row.itemId);
+            ps.setString(4, row.state);
+        });
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[0][i] == 0) {
+                CounterDelta row = rows.get(i);
+                jdbcTemplate.update(INSERT_COUNTER, row.ownerId, row.itemId, row.state, row.count);
+            }
+        }
+    }
+
+    private static String getPhase(LocalDateTime start, LocalDateTime end, LocalDateTime countedTo) {
+        if (start.isAfter(countedTo)) {
+
+            return FUTURE.name();
+        }
+
+        return end.isAfter(countedTo) ? CURRENT.name() : PAST.name();
+    }
+
+    /**
+     * H2 (tests) does not support SKIP LOCKED, a plain row lock is enough there.
+     */
+    private String getLockClause() {
+        return isPostgreSql() ? " for update skip locked" : " for update";
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgreSql = "PostgreSQL".equals(product);
+        }
+
+        return postgreSql;
+    }
+
+    @FunctionalInterface
+    private interface CountConsumer {
+        void accept(long ownerId, long itemId, String status, String phase, long count);
+    }
+
+    private static class CounterDelta {
+        static final Comparator<CounterDelta> ORDER = Comparator
+                .comparingLong((CounterDelta delta) -> delta.ownerId)
+                .thenComparingLong(delta -> delta.itemId)
+                .thenComparing(delta -> delta.state);
+
+        final long ownerId;
+        final long itemId;
+        final String state;
+        final long count;
+
+        CounterDelta(long ownerId, long itemId, String state, long count) {
+            this.ownerId = ownerId;
+            this.itemId = itemId;
+            this.state = state;
+            this.count = count;
+        }
+    }
+}
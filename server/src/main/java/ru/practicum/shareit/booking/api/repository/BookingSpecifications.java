@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.CANCELED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
+
+/**
+ * Условия выборки бронирований для {@link BookingRepositoryCustom#findAllMatching}.
+ * <p>
+ * Роль пользователя ({@link #booker}, {@link #owner}) и фильтр {@link BookingState} ({@link #inState})
+ * объединяются через {@link Specification#and}. Фильтр для нового состояния - одна запись в {@link #STATES},
+ * без фильтра класс не загрузится.
+ */
+public final class BookingSpecifications {
+    static final String ID = "id";
+    static final String START = "start";
+    static final String END = "end";
+    static final String STATUS = "status";
+    static final String ITEM = "item";
+    static final String BOOKER = "booker";
+    static final String OWNER_ID = "ownerId";
+
+    private static final Map<BookingState, Function<LocalDateTime, Specification<Booking>>> STATES =
+            new EnumMap<>(BookingState.class);
+
+    static {
+        STATES.put(BookingState.ALL, now -> Specification.where(null));
+        STATES.put(BookingState.CURRENT, now -> startBefore(now).and(endAfter(now)));
+        // start < now следует из end < now, нужно для отсечения секций по start_time
+        STATES.put(BookingState.PAST, now -> endBefore(now).and(startBefore(now)));
+        STATES.put(BookingState.FUTURE, BookingSpecifications::startAfter);
+        STATES.put(BookingState.WAITING, now -> status(WAITING));
+        STATES.put(BookingState.REJECTED, now -> status(REJECTED));
+        STATES.put(BookingState.CANCELED, now -> status(CANCELED));
+
+        for (BookingState state : BookingState.values()) {
+            if (!STATES.containsKey(state)) {
+                throw new IllegalStateException("No booking filter for state " + state);
+            }
+        }
+    }
+
+    private BookingSpecifications() {
+    }
+
+    /**
+     * @param bookerId Booker ID
+     * @return Бронирования арендатора
+     */
+    public static Specification<Booking> booker(Long bookerId) {
+        return (booking, query, cb) -> cb.equal(booking.get(BOOKER).get(ID), bookerId);
+    }
+
+    /**
+     * @param ownerId Owner ID
+     * @return Бронирования вещей владельца, по {@code bookings.owner_id} без соединения с вещами
+     */
+    public static Specification<Booking> owner(Long ownerId) {
+        return (booking, query, cb) -> cb.equal(booking.get(OWNER_ID), ownerId);
+    }
+
+    /**
+     * @param state Фильтр поиска
+     * @param now   Точное время
+     * @return Условие для состояния, для {@link BookingState#ALL} - без условия
+     */
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return STATES.get(state).apply(now);
+    }
+
+    /**
+     * @param status Booking status
+     * @return Бронирования в статусе
+     */
+    public static Specification<Booking> status(BookingStatus status) {
+        return (booking, query, cb) -> cb.equal(booking.get(STATUS), status);
+    }
+
+    private static Specification<Booking> startBefore(LocalDateTime now) {
+        return (booking, query, cb) -> cb.lessThan(booking.<LocalDateTime>get(START), now);
+    }
+
+    private static Specification<Booking> startAfter(LocalDateTime now) {
+        return (booking, query, cb) -> cb.greaterThan(booking.<LocalDateTime>get(START), now);
+    }
+
+    private static Specification<Booking> endBefore(LocalDateTime now) {
+        return (booking, query, cb) -> cb.lessThan(booking.<LocalDateTime>get(END), now);
+    }
+
+    private static Specification<Booking> endAfter(LocalDateTime now) {
+        return (booking, query, cb) -> cb.greaterThan(booking.<LocalDateTime>get(END), now);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+
+/**
+ * Счётчики бронирований владельцев по времени (FUTURE, CURRENT, PAST).
+ * <p>
+ * При первом старте строит {@code booking_counters} по всем бронированиям, затем каждые {@code delay} мс
+ * переносит начавшиеся и закончившиеся бронирования и сдвигает отметку {@code counted_to}.
+ * Отметка отстаёт от текущего времени на {@code lag-ms}: бронирование, транзакция которого ещё не завершена,
+ * не пропускается, если транзакция короче отставания.
+ * <p>
+ * По {@code rebuild-cron} счётчики пересчитываются заново на текущую отметку: расхождение из-за пропущенного
+ * изменения не накапливается дольше суток.
+ * <p>
+ * Метрика: {@code shareit.bookings.counters.moved}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.counters.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingCounterScheduler {
+    private final BookingRepository bookingRepository;
+    private final long lagMillis;
+    private final Counter movedCounter;
+
+    public BookingCounterScheduler(
+            BookingRepository bookingRepository,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.booking.counters.lag-ms:60000}") long lagMillis) {
+        this.bookingRepository = bookingRepository;
+        this.lagMillis = lagMillis;
+        this.movedCounter = Counter.builder("shareit.bookings.counters.moved")
+                .description("Bookings moved between FUTURE, CURRENT and PAST counters")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        LocalDateTime countedTo = LocalDateTime.now().minus(lagMillis, MILLIS);
+        if (bookingRepository.buildCounters(countedTo)) {
+            log.info("[i] BOOKING COUNTERS BUILT to {}", countedTo);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.counters.delay:60000}",
+            fixedDelayString = "${shareit.booking.counters.delay:60000}")
+    public void run() {
+        advanceCounters(LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${shareit.booking.counters.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        if (bookingRepository.rebuildCounters()) {
+            log.info("[i] BOOKING COUNTERS REBUILT");
+        }
+    }
+
+    /**
+     * @param now Точное время
+     * @return Количество перенесённых бронирований, -1 - счётчики не построены
+     */
+    public int advanceCounters(LocalDateTime now) {
+        int moved = bookingRepository.advanceCounters(now.minus(lagMillis, MILLIS));
+        if (moved > 0) {
+            movedCounter.increment(moved);
+        }
+
+        return moved;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Отмена бронирований, на которые владелец не ответил до начала аренды.
+ * <p>
+ * Бронирования в статусе WAITING, начало которых уже наступило, переводятся в CANCELED
+ * пакетами по {@code batch-size}, не более {@code max-batches} пакетов за запуск.
+ * Каждый пакет - отдельная транзакция с блокировкой строк (SKIP LOCKED),
+ * поэтому задачу можно запускать на нескольких экземплярах сервера одновременно.
+ * <p>
+ * Метрики: {@code shareit.bookings.expired} (отменено бронирований),
+ * {@code shareit.bookings.expiry.batch} (время пакета).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryScheduler {
+    private final BookingRepository bookingRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expiredCounter;
+    private final Timer batchTimer;
+
+    public BookingExpiryScheduler(
+            BookingRepository bookingRepository,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+            @Value("${shareit.booking.expiry.max-batches:20}") int maxBatches) {
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("WAITING bookings canceled because their start has passed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("shareit.bookings.expiry.batch")
+                .description("Time to cancel one batch of expired WAITING bookings")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.expiry.initial-delay:60000}",
+            fixedDelayString = "${shareit.booking.expiry.delay:60000}")
+    public void run() {
+        expireWaitingBookings(LocalDateTime.now());
+    }
+
+    /**
+     * @param now Точное время
+     * @return Количество отменённых бронирований
+     */
+    public int expireWaitingBookings(LocalDateTime now) {
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> canceled = batchTimer.record(() ->
+                    bookingRepository.cancelExpiredWaiting(now, batchSize));
+            total += canceled.size();
+            expiredCounter.increment(canceled.size());
+
+            if (canceled.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[i] EXPIRED WAITING BOOKINGS: {}", total);
+        }
+
+        return total;
+    }
+}
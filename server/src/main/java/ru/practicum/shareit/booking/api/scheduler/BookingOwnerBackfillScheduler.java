@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+/**
+ * Заполнение {@code bookings.owner_id} у бронирований, сохранённых без владельца.
+ * <p>
+ * Новые бронирования получают владельца вещи при сохранении, строки, существовавшие до появления
+ * столбца, заполняет миграция в schema-*.sql. Список бронирований владельца читает только {@code owner_id},
+ * поэтому задача добирает строки от экземпляров старой версии при поэтапном обновлении:
+ * запускается при старте и по {@code cron},
+ * пакетами по {@code batch-size}, не более {@code max-batches} пакетов за запуск.
+ * Запуск при старте пропускается, если один из прошлых стартов уже не нашёл остатка
+ * (отметка в {@code job_marks}): дальше строки добирает только {@code cron}.
+ * <p>
+ * Метрика: {@code shareit.bookings.owner.backfilled}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.owner-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingOwnerBackfillScheduler {
+    static final String STARTUP_JOB = "booking-owner-backfill";
+
+    private final BookingRepository bookingRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter backfilledCounter;
+
+    public BookingOwnerBackfillScheduler(
+            BookingRepository bookingRepository,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.booking.owner-backfill.batch-size:1000}") int batchSize,
+            @Value("${shareit.booking.owner-backfill.max-batches:100}") int maxBatches) {
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.backfilledCounter = Counter.builder("shareit.bookings.owner.backfilled")
+                .description("Bookings whose owner_id was filled from the item")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (bookingRepository.isJobDone(STARTUP_JOB)) {
+
+            return;
+        }
+        if (backfillOwners() < (long) batchSize * maxBatches) {
+            bookingRepository.markJobDone(STARTUP_JOB);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking.owner-backfill.cron:0 15 * * * *}")
+    public void run() {
+        backfillOwners();
+    }
+
+    /**
+     * @return Количество бронирований с заполненным владельцем
+     */
+    public int backfillOwners() {
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int backfilled = bookingRepository.backfillOwnerIds(batchSize);
+            total += backfilled;
+            backfilledCounter.increment(backfilled);
+
+            if (backfilled < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[i] BACKFILLED BOOKING OWNERS: {}", total);
+        }
+
+        return total;
+    }
+}
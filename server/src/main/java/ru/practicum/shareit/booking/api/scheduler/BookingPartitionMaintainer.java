@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.SchemaInitConfig;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static java.lang.String.format;
+
+/**
+ * Месячные партиции таблицы {@code bookings} (только PostgreSQL, см. schema-postgresql.sql).
+ * На других БД запуски при старте и по расписанию ничего не делают.
+ * <p>
+ * Создаёт партиции на текущий и {@code months-ahead} следующих месяцев,
+ * чтобы новые бронирования не попадали в {@code bookings_default}.
+ * Старые месяцы остаются в своих партициях: списки и история читают их через {@code bookings},
+ * а запросы с границей по {@code start_time} их отсекают.
+ * <p>
+ * Бронирования на месяц без партиции уже лежат в {@code bookings_default}, и PostgreSQL не даст
+ * создать партицию поверх них. Поэтому партиция создаётся отдельной таблицей, строки месяца
+ * переносятся в неё из {@code bookings_default} и только затем она подключается к {@code bookings} -
+ * всё в одной транзакции под блокировкой {@code bookings_default}. Наличие партиции проверяется
+ * ещё раз под блокировкой, поэтому экземпляры, стартующие одновременно, создают её по очереди, а не оба.
+ * Ошибка не глотается: партиция либо создана вместе со своими строками, либо обслуживание падает целиком.
+ * При старте такая ошибка только пишется в лог - обслуживание не мешает подняться приложению,
+ * а пропущенные партиции досоздаст следующий запуск по расписанию.
+ */
+@Slf4j
+@Component
+public class BookingPartitionMaintainer {
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String IS_PARTITIONED = "select count(*) > 0 from pg_partitioned_table pt " +
+            "join pg_class c on c.oid = pt.partrelid " +
+            "join pg_namespace n on n.oid = c.relnamespace " +
+            "where n.nspname = 'public' and c.relname = 'bookings'";
+    private static final String PARTITION_EXISTS = "select count(*) > 0 from pg_class c " +
+            "join pg_namespace n on n.oid = c.relnamespace " +
+            "where n.nspname = 'public' and c.relname = ?";
+    private static final String LOCK_DEFAULT = "lock table public.bookings_default in exclusive mode";
+    private static final String CREATE_PARTITION = "create table public.bookings_p%s " +
+            "(like public.bookings including defaults including constraints)";
+    private static final String MOVE_FROM_DEFAULT = "with moved as (" +
+            "delete from public.bookings_default where start_time >= ? and start_time < ? returning *) " +
+            "insert into public.bookings_p%s select * from moved";
+    private static final String ATTACH_PARTITION = "alter table public.bookings attach partition public.bookings_p%s " +
+            "for values from ('%s') to ('%s')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private volatile Boolean postgreSql;
+
+    public BookingPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.booking.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            if (isPostgreSql()) {
+                maintain(LocalDate.now());
+            }
+        } catch (RuntimeException e) {
+            log.warn("[!] Partition maintenance on startup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking.partitioning.cron:0 0 3 * * *}")
+    public void run() {
+        if (isPostgreSql()) {
+            maintain(LocalDate.now());
+        }
+    }
+
+    public void maintain(LocalDate today) {
+        Boolean partitioned = jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class);
+        if (!Boolean.TRUE.equals(partitioned)) {
+            log.warn("[!] public.bookings is not partitioned, partition maintenance skipped");
+            return;
+        }
+
+        YearMonth current = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String suffix = month.format(PARTITION_SUFFIX);
+        if (partitionExists(suffix)) {
+            return;
+        }
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LOCK_DEFAULT);
+            // another instance may have created it while this one waited for the lock
+            if (partitionExists(suffix)) {
+                return null;
+            }
+            jdbcTemplate.execute(format(CREATE_PARTITION, suffix));
+            int rows = jdbcTemplate.update(format(MOVE_FROM_DEFAULT, suffix), from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute(format(ATTACH_PARTITION, suffix, from, to));
+            return rows;
+        });
+        if (moved == null) {
+            return;
+        }
+        log.info("[i] Partition for {} created, {} bookings moved from bookings_default", month, moved);
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = SchemaInitConfig.POSTGRESQL.equals(SchemaInitConfig.getPlatform(jdbcTemplate.getDataSource()));
+        }
+
+        return postgreSql;
+    }
+
+    private boolean partitionExists(String suffix) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITION_EXISTS, Boolean.class, "bookings_p" + suffix));
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.api.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.export.NdjsonExport;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,9 +18,15 @@ public interface BookingService {
 
     BookingDto update(Long ownerId, Long bookingId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveAll(Long ownerId, List<BookingApprovalDto> decisions);
+
     BookingDto get(Long userId, Long bookingId);
 
     List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
 
     List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    BookingSummaryDto getOwnerSummary(Long ownerId, LocalDateTime now);
+
+    NdjsonExport exportAllByUser(Long bookerId);
 }
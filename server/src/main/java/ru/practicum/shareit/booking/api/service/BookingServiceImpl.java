@@ -1,46 +1,71 @@
 package ru.practicum.shareit.booking.api.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.export.NdjsonExport;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.booker;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.owner;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
 import static ru.practicum.shareit.constants.Constants.BOOKING_NOT_EXISTS;
 import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
+import static ru.practicum.shareit.constants.Constants.SUMMARY_TOP_ITEMS;
 import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NdjsonExporter ndjsonExporter;
 
     @Override
+    @Transactional
     public BookingDto create(Long bookerId, BookingSimpleDto dto) {
         Long itemId = dto.getItemId();
         Item item = itemRepository.findById(itemId)
@@ -68,8 +93,10 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setStatus(WAITING);
 
-        return BookingMapper.INSTANCE.toDto(
-                bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        publishStatusChanged(saved, null, WAITING);
+
+        return BookingMapper.INSTANCE.toDto(saved);
     }
 
     /**
@@ -83,6 +110,7 @@ public class BookingServiceImpl implements BookingService {
      * @return Бронирование с новым статусом
      */
     @Override
+    @Transactional
     public BookingDto update(Long ownerId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(
@@ -107,11 +135,84 @@ public class BookingServiceImpl implements BookingService {
                     + "You cannot be the owner and the booker of this item at the same time.");
         }
 
-        booking.setStatus(approved ? APPROVED : REJECTED);
-        bookingRepository
-                .updateStatusById(booking.getStatus(), bookingId);
+        BookingStatus status = approved ? APPROVED : REJECTED;
+        // the status may have changed since findById: cancelled by expiry or decided in parallel
+        if (bookingRepository.updateWaitingStatusById(status, bookingId) != 1) {
+            throw new BadRequestException("The booking status has already been set.");
+        }
+        publishStatusChanged(booking, WAITING, status);
+        // the entity is not modified: the status is written by the single UPDATE above
+        BookingDto bookingDto = BookingMapper.INSTANCE.toDto(booking);
+        bookingDto.setStatus(status);
 
-        return BookingMapper.INSTANCE.toDto(booking);
+        return bookingDto;
+    }
+
+    /**
+     * Пакетное подтверждение или отклонение запросов на бронирование.<br/>
+     * Статус меняется одним пакетом UPDATE, владение вещью проверяется в SQL.<br/>
+     * Повторяющиеся ID учитываются один раз (по первому решению).
+     *
+     * @param ownerId   user ID - Owner
+     * @param decisions Booking ID + approved (true = APPROVED / false = REJECTED)
+     * @return Результат по каждому ID в порядке запроса
+     */
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveAll(Long ownerId, List<BookingApprovalDto> decisions) {
+        checkingUserId(ownerId);
+
+        boolean hasIncompleteDecision = decisions.stream()
+                .anyMatch(decision -> decision.getId() == null || decision.getApproved() == null);
+        if (hasIncompleteDecision) {
+            throw new BadRequestException("Booking ID and decision are required.");
+        }
+
+        Map<Long, BookingStatus> statuses = decisions.stream()
+                .collect(toMap(BookingApprovalDto::getId,
+                        decision -> decision.getApproved() ? APPROVED : REJECTED,
+                        (first, second) -> first,
+                        LinkedHashMap::new));
+
+        Set<Long> updatedIds = bookingRepository.updateWaitingStatusByOwner(ownerId, statuses);
+
+        Map<Long, Booking> bookings = bookingRepository.findAllById(statuses.keySet())
+                .stream()
+                .collect(toMap(Booking::getId, Function.identity()));
+        updatedIds.forEach(id -> publishStatusChanged(bookings.get(id), WAITING, statuses.get(id)));
+
+        return statuses.entrySet().stream()
+                .map(entry -> updatedIds.contains(entry.getKey())
+                        ? new BookingApprovalResultDto(entry.getKey(), entry.getValue(), null)
+                        : getApprovalFailure(ownerId, entry.getKey(), bookings.get(entry.getKey())))
+                .collect(toList());
+    }
+
+    private void publishStatusChanged(Booking booking, BookingStatus previousStatus, BookingStatus status) {
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(),
+                previousStatus,
+                status,
+                booking.getStart(),
+                booking.getEnd()));
+    }
+
+    private BookingApprovalResultDto getApprovalFailure(Long ownerId, Long bookingId, Booking booking) {
+        if (booking == null) {
+
+            return new BookingApprovalResultDto(bookingId, null,
+                    format(BOOKING_NOT_EXISTS, bookingId));
+        }
+
+        boolean isNotOwner = !ownerId.equals(booking.getItem().getOwner().getId());
+        String error = isNotOwner
+                ? "Access denied. You are not the owner of this item"
+                : "The booking status has already been set.";
+
+        return new BookingApprovalResultDto(bookingId, booking.getStatus(), error);
     }
 
     /**
@@ -155,6 +256,7 @@ public class BookingServiceImpl implements BookingService {
      *     <li>FUTURE - будущие бронирования (start_date after NOW)</li>
      *     <li>WAITING - бронирования в ожидании решения от владельца предмета (status ==)</li>
      *     <li>REJECTED - отказы в аренде от владельца предмета (status ==)</li>
+     *     <li>CANCELED - отменённые арендатором или по истечении ожидания (status ==)</li>
      * </ul>
      *
      * @param bookerId user ID
@@ -165,39 +267,10 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     public List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable) {
-        List<Booking> bookings = new ArrayList<>();
-
         checkingUserId(bookerId);
 
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
-                                now, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBooker_IdAndEndBeforeOrderByStartDesc(
-                        bookerId, now, pageable);
-                break;
-            case ALL:
-                bookings = bookingRepository.findAllByBooker_IdOrderByStartDesc(
-                        bookerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBooker_IdAndStartAfterOrderByStartDesc(
-                        bookerId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, REJECTED, pageable);
-                break;
-        }
-
-        return getListBookingDtoRecord(bookings);
+        return getListBookingDtoRecord(bookingRepository.findAllMatching(
+                booker(bookerId).and(inState(state, now)), pageable));
     }
 
     private void checkingUserId(Long userId) {
@@ -216,6 +289,7 @@ public class BookingServiceImpl implements BookingService {
      *     <li>FUTURE - будущие бронирования (start_date after NOW)</li>
      *     <li>WAITING - бронирования в ожидании принятия решения (status ==)</li>
      *     <li>REJECTED - отказы в аренде от владельца предмета (status ==)</li>
+     *     <li>CANCELED - отменённые арендатором или по истечении ожидания (status ==)</li>
      * </ul>
      *
      * @param ownerId  user ID
@@ -226,43 +300,61 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     public List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable) {
-        List<Booking> bookings = new ArrayList<>();
+        checkingUserId(ownerId);
+
+        return getListBookingDtoRecord(bookingRepository.findAllMatching(
+                owner(ownerId).and(inState(state, now)), pageable));
+    }
 
+    /**
+     * Сводка для владельца без чтения списков: количество бронирований по каждому {@link BookingState}
+     * и самые бронируемые вещи - из счётчиков {@code booking_counters}, загрузка на неделю вперёд -
+     * диапазон индекса {@code (owner_id, start_time)}.
+     *
+     * @param ownerId user ID
+     * @param now     Точное время
+     * @return Сводка бронирований
+     */
+    @Override
+    public BookingSummaryDto getOwnerSummary(Long ownerId, LocalDateTime now) {
         checkingUserId(ownerId);
 
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(ownerId,
-                        now, now, pageable);
-
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(
-                        ownerId, now, pageable);
-                break;
-            case ALL:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdOrderByStartDesc(
-                                ownerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(
-                                ownerId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                                ownerId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                                ownerId, REJECTED, pageable);
-                break;
+        Map<String, Long> counters = bookingRepository.findCountersByOwner(ownerId).stream()
+                .collect(toMap(BookingRepository.CounterView::getState, BookingRepository.CounterView::getBookings));
+        Map<BookingState, Long> states = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            states.put(state, counters.getOrDefault(state.name(), 0L));
         }
+        states.put(BookingState.ALL, states.get(BookingState.FUTURE)
+                + states.get(BookingState.CURRENT) + states.get(BookingState.PAST));
+
+        List<BookingSummaryDto.ItemDto> topItems = bookingRepository
+                .findTopItemsByOwner(ownerId, SUMMARY_TOP_ITEMS).stream()
+                .map(item -> new BookingSummaryDto.ItemDto(item.getId(), item.getName(), item.getBookings()))
+                .collect(toList());
+
+        return BookingSummaryDto.builder()
+                .states(states)
+                .upcomingWeek(bookingRepository.countByOwnerIdAndStartGreaterThanEqualAndStartLessThanAndStatusIn(
+                        ownerId, now, now.plusWeeks(1), List.of(WAITING, APPROVED)))
+                .topItems(topItems)
+                .countedTo(bookingRepository.findCountedTo().orElse(null))
+                .build();
+    }
+
+    /**
+     * Вся история бронирований арендатора в NDJSON: курсор БД вместо страниц {@code List<Booking>}.
+     *
+     * @param bookerId user ID - Booker
+     * @return Выгрузка, строки читаются из БД при записи ответа
+     */
+    @Override
+    public NdjsonExport exportAllByUser(Long bookerId) {
+        checkingUserId(bookerId);
 
-        return getListBookingDtoRecord(bookings);
+        return ndjsonExporter.export(
+                () -> bookingRepository.streamAllByBooker_IdOrderByStartDesc(bookerId),
+                BookingMapper.INSTANCE::toDto);
     }
 
     private List<BookingDto> getListBookingDtoRecord(List<Booking> bookingList) {
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.api.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+/**
+ * Счётчики бронирований владельцев ({@code booking_counters}) для {@code GET /bookings/owner/summary}.
+ * <p>
+ * Новое бронирование и смена статуса учитываются в той же транзакции.
+ * Отмена по истечении ожидания меняет счётчики в своих пакетах,
+ * переходы FUTURE - CURRENT - PAST по времени - {@code BookingCounterScheduler}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingCounterListener {
+    private final BookingRepository bookingRepository;
+
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        bookingRepository.countBooking(event.getOwnerId(), event.getItemId(),
+                event.getPreviousStatus(), event.getStatus(), event.getStart(), event.getEnd());
+    }
+}
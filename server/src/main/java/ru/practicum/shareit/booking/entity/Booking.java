@@ -17,10 +17,13 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
 
 @Builder
 @Getter
@@ -31,7 +34,9 @@ import static javax.persistence.GenerationType.IDENTITY;
 @Table(name = "bookings", schema = "public")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", schema = "public",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "START_TIME")
@@ -50,11 +55,25 @@ public class Booking {
             referencedColumnName = "ID")
     private User booker;
 
+    /**
+     * Владелец вещи на момент бронирования (владелец вещи не меняется): список бронирований владельца
+     * читается по индексу {@code (owner_id, start_time)} без соединения с {@code items}.
+     */
+    @Column(name = "OWNER_ID")
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false,
             length = 16)
     private BookingStatus status;
 
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+
     @Override
     public String toString() {
         return "Booking{" +
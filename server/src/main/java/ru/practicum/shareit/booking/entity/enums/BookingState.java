@@ -9,6 +9,7 @@ package ru.practicum.shareit.booking.entity.enums;
  *     <li>FUTURE - будущие бронирования</li>
  *     <li>WAITING - бронирования в ожидании решения от владельца предмета</li>
  *     <li>REJECTED - отказы в аренде от владельца предмета</li>
+ *     <li>CANCELED - отменённые арендатором или по истечении ожидания решения владельца</li>
  * </ul>
  */
 public enum BookingState {
@@ -17,5 +18,6 @@ public enum BookingState {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED
+    REJECTED,
+    CANCELED
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+
+/**
+ * Таймеры {@code shareit.service} для сервисов, помеченных {@code @Timed}.
+ * <p>
+ * Теги: {@code class}, {@code method}, {@code state} ({@link BookingState} из аргументов, иначе {@code none}).
+ * Запросы репозиториев - {@code spring.data.repository.invocations}, пул соединений - {@code hikaricp.*}.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "shareit.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry, MetricsConfig::getTags);
+    }
+
+    static Tags getTags(ProceedingJoinPoint joinPoint) {
+        return Tags.of(
+                "class", joinPoint.getStaticPart().getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getStaticPart().getSignature().getName(),
+                "state", getState(joinPoint.getArgs()));
+    }
+
+    /**
+     * @param args аргументы метода сервиса
+     * @return {@link BookingState} из аргументов или {@code none}
+     */
+    public static String getState(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState) {
+
+                return ((BookingState) arg).name();
+            }
+        }
+
+        return "none";
+    }
+}
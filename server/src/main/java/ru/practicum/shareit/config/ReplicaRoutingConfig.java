@@ -0,0 +1,103 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.jdbc.ReadYourWrites;
+import ru.practicum.shareit.jdbc.ReplicaRoutingDataSource;
+import ru.practicum.shareit.jdbc.ReplicaRoutingDataSource.Replica;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Чтение с реплик: включается, если задан {@code shareit.datasource.replica.urls} (через запятую).
+ * <p>
+ * Основная БД - {@code spring.datasource.*}, реплики - те же драйвер и настройки пула
+ * ({@code spring.datasource.hikari.*}), учётные данные - {@code shareit.datasource.replica.username/password}
+ * (по умолчанию как у основной). Пулы называются {@code primary} и {@code replica-N}, метрики - {@code hikaricp.*}.
+ * Без реплик используется стандартный {@code DataSource} Spring Boot.
+ * <p>
+ * Основной {@code DataSource} - {@link LazyConnectionDataSourceProxy} над {@link ReplicaRoutingDataSource}.
+ * Sleuth оборачивает только маршрутизатор ({@code lazyRoutingDataSource} исключён в
+ * {@code spring.sleuth.jdbc.excluded-data-source-bean-names}): обёртка читает метаданные соединения сразу
+ * при получении и иначе выбирала бы БД до начала транзакции.
+ * <p>
+ * Метрики пулов и маршрутизации пишутся в отдельный реестр, подключаемый к основному через {@link MeterBinder}:
+ * основной реестр при создании сам зависит от {@code DataSource} (метрики пулов Spring Boot).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    @Bean
+    public MeterBinder replicaRoutingMeterBinder() {
+        return meterRegistry::add;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(
+            @Value("${shareit.datasource.replica.read-your-writes-ms:1000}") long windowMillis) {
+        return new ReadYourWrites(windowMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource lazyRoutingDataSource(@Qualifier("replicaRoutingDataSource") DataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ReadYourWrites readYourWrites,
+            @Value("${shareit.datasource.replica.urls}") List<String> urls,
+            @Value("${shareit.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${shareit.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${shareit.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+            @Value("${shareit.datasource.replica.check-ms:1000}") long checkMillis) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(primary, "primary", environment);
+
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            String name = "replica-" + (replicas.size() + 1);
+            configurePool(replica, name, environment);
+            replica.setReadOnly(true);
+            replicas.add(new Replica(name, replica,
+                    url.trim().startsWith("jdbc:postgresql:") ? ReplicaRoutingDataSource.POSTGRESQL_LAG_QUERY : null));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites, meterRegistry,
+                maxLagMillis, checkMillis);
+    }
+
+    private void configurePool(HikariDataSource pool, String name, Environment environment) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
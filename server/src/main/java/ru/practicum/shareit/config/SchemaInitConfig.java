@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Скрипты схемы: {@code schema.sql}, затем {@code schema-postgresql.sql} (секционированная {@code bookings})
+ * на PostgreSQL или {@code schema-all.sql} (обычная таблица) на любой другой БД.
+ * <p>
+ * Платформа определяется по {@code DatabaseMetaData#getDatabaseProductName} подключённой БД, а не по
+ * {@code spring.sql.init.platform}: без секционирования на PostgreSQL не выполнилась бы и миграция
+ * IDENTITY на последовательности. Остальные {@code spring.sql.init.*} (mode, separator, ...) действуют как обычно.
+ * Бин заменяет {@code SqlDataSourceScriptDatabaseInitializer} Spring Boot, JPA по-прежнему ждёт его.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class SchemaInitConfig {
+    public static final String POSTGRESQL = "postgresql";
+    public static final String ALL = "all";
+
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptInitializer(
+            DataSource dataSource,
+            SqlInitializationProperties properties) {
+        DatabaseInitializationSettings settings = SqlDataSourceScriptDatabaseInitializer.getSettings(properties);
+        settings.setSchemaLocations(getSchemaLocations(getPlatform(dataSource)));
+
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+
+    /**
+     * @param dataSource Подключённая БД
+     * @return {@code postgresql} или {@code all}
+     */
+    public static String getPlatform(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+
+            return DatabaseDriver.fromProductName(product) == DatabaseDriver.POSTGRESQL ? POSTGRESQL : ALL;
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to detect the database for the schema scripts", e);
+        }
+    }
+
+    static List<String> getSchemaLocations(String platform) {
+        return List.of("classpath:schema.sql", "classpath:schema-" + platform + ".sql");
+    }
+}
@@ -21,9 +21,12 @@ import org.jeasy.random.EasyRandom;
  * <h3>Booking Controller</h3>
  * {@link Constants#CREATE_BOOKING} Создание бронирования <br/>
  * {@link Constants#UPDATE_STATUS_BOOKING} Изменить статус бронирования <br/>
+ * {@link Constants#APPROVE_BOOKINGS} Изменить статус нескольких бронирований <br/>
  * {@link Constants#GET_BOOKING}    Посмотреть бронирование <br/>
  * {@link Constants#GET_ALL_BOOKINGS_FOR_USER}  Посмотреть бронирования от имени пользователя <br/>
  * {@link Constants#GET_ALL_BOOKINGS_FOR_OWNER} Посмотреть бронирования от имени владельца предмета <br/>
+ * {@link Constants#EXPORT_BOOKINGS} Выгрузить все бронирования пользователя (NDJSON) <br/>
+ * {@link Constants#GET_OWNER_BOOKINGS_SUMMARY} Сводка бронирований владельца предметов <br/>
  * <h3>Item Controller</h3>
  * {@link Constants#CREATE_ITEM} Создать предмет <br/>
  * {@link Constants#UPDATE_ITEM} Изменить предмет <br/>
@@ -31,6 +34,10 @@ import org.jeasy.random.EasyRandom;
  * {@link Constants#SEARCH_ITEM} Поиск предмета <br/>
  * {@link Constants#GET_ALL_ITEMS} Посмотреть все предметы <br/>
  * {@link Constants#CREATE_COMMENT} Оставить комментарий для предмета <br/>
+ * {@link Constants#GET_COMMENTS} Посмотреть комментарии предмета (постранично, по курсору) <br/>
+ * {@link Constants#EXPORT_ITEMS} Выгрузить все предметы владельца (NDJSON) <br/>
+ * {@link Constants#CREATE_ITEMS_BULK} Создать предметы пакетом <br/>
+ * {@link Constants#GET_TRENDING_ITEMS} Популярные предметы за день, неделю и месяц <br/>
  * <h3>ItemRequest Controller</h3>
  * {@link Constants#CREATE_REQUEST} Создать запрос на предмет <br/>
  * {@link Constants#GET_BY_REQUESTER} Посмотреть запрос на предмет от имени запрашиваемого <br/>
@@ -42,6 +49,12 @@ import org.jeasy.random.EasyRandom;
  * {@link Constants#GET_USER}   Посмотреть пользователя <br/>
  * {@link Constants#DELETE_USER} Удалить пользователя <br/>
  * {@link Constants#GET_ALL_USERS} Посмотреть всех пользователей <br/>
+ * <h2>Ids</h2>
+ * {@link Constants#ID_ALLOCATION_SIZE} ID за одно обращение к последовательности (pooled-lo) <br/>
+ * <h2>Export</h2>
+ * {@link Constants#EXPORT_FETCH_SIZE} Строк за одно обращение курсора к БД <br/>
+ * <h2>Summary</h2>
+ * {@link Constants#SUMMARY_TOP_ITEMS} Предметов в сводке бронирований владельца <br/>
  */
 public interface Constants {
     boolean LOGGING_IN_TEST = false;
@@ -56,15 +69,22 @@ public interface Constants {
     String BOOKING_NOT_EXISTS = "Booking with id:(%d) not exist";
     String CREATE_BOOKING = "/bookings";
     String UPDATE_STATUS_BOOKING = "/bookings/{id}";
+    String APPROVE_BOOKINGS = "/bookings/approve";
     String GET_BOOKING = "/bookings/{id}";
     String GET_ALL_BOOKINGS_FOR_USER = "/bookings";
     String GET_ALL_BOOKINGS_FOR_OWNER = "/bookings/owner";
+    String EXPORT_BOOKINGS = "/bookings/export";
+    String GET_OWNER_BOOKINGS_SUMMARY = "/bookings/owner/summary";
     String CREATE_ITEM = "/items";
     String UPDATE_ITEM = "/items/{id}";
     String GET_ITEM = "/items/{id}";
     String SEARCH_ITEM = "/items/search";
     String GET_ALL_ITEMS = "/items";
     String CREATE_COMMENT = "/items/{id}/comment";
+    String GET_COMMENTS = "/items/{id}/comments";
+    String EXPORT_ITEMS = "/items/export";
+    String CREATE_ITEMS_BULK = "/items/bulk";
+    String GET_TRENDING_ITEMS = "/items/trending";
     String CREATE_REQUEST = "/requests";
     String GET_BY_REQUESTER = "/requests";
     String GET_REQUEST = "/requests/{id}";
@@ -74,4 +94,7 @@ public interface Constants {
     String GET_USER = "/users/{id}";
     String DELETE_USER = "/users/{id}";
     String GET_ALL_USERS = "/users";
+    int ID_ALLOCATION_SIZE = 50;
+    String EXPORT_FETCH_SIZE = "500";
+    int SUMMARY_TOP_ITEMS = 5;
 }
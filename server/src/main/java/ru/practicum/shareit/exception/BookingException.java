@@ -1,7 +1,10 @@
 package ru.practicum.shareit.exception;
 
+/**
+ * Ожидаемая ошибка клиента: без стека, см. {@link ru.practicum.shareit.exception.controller.ExceptionController}.
+ */
 public class BookingException extends RuntimeException {
     public BookingException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.exception.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,25 +19,42 @@ import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.exception.entity.ErrorException;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+/**
+ * Ошибки клиента (4xx) - ожидаемый поток, а не сбой: исключения без стека,
+ * счётчик {@code shareit.errors} (теги {@code exception}, {@code status}) и запись в лог WARN
+ * не чаще {@code shareit.errors.log-per-second} раз в секунду на тип исключения.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ExceptionController {
     public static final ZonedDateTime NOW = ZonedDateTime.now();
 
-    private void logError(HttpStatus status, String message, Throwable e) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        String stackTraceString = sw.toString().replace(", ", "\n");
+    private final MeterRegistry meterRegistry;
+    private final int logPerSecond;
+    private final Map<Class<?>, ErrorLog> errors = new ConcurrentHashMap<>();
 
-        log.error("[!] Received the status {} Error: {}\n{}", status, message, stackTraceString);
+    public ExceptionController(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.errors.log-per-second:10}") int logPerSecond) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.logPerSecond = logPerSecond;
+    }
+
+    private void logError(HttpStatus status, String message, RuntimeException e) {
+        ErrorLog errorLog = errors.computeIfAbsent(e.getClass(), type -> new ErrorLog(type, status));
+        errorLog.counter.increment();
+        long suppressed = errorLog.tryAcquire(System.currentTimeMillis() / 1000, logPerSecond);
+        if (suppressed >= 0) {
+            log.warn("[!] Received the status {} Error: {} ({}, suppressed: {})",
+                    status, message, e.getClass().getSimpleName(), suppressed);
+        }
     }
 
     @ExceptionHandler(RentalPeriodException.class)
@@ -101,4 +123,41 @@ public class ExceptionController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorException(404, message));
     }
+
+    /**
+     * Счётчик и окно логирования одного типа исключения.
+     */
+    private class ErrorLog {
+        private final Counter counter;
+        private long second;
+        private int logged;
+        private long suppressed;
+
+        ErrorLog(Class<?> type, HttpStatus status) {
+            this.counter = Counter.builder("shareit.errors")
+                    .tag("exception", type.getSimpleName())
+                    .tag("status", String.valueOf(status.value()))
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @return число подавленных записей с прошлой записи, {@code -1} - запись подавлена
+         */
+        synchronized long tryAcquire(long now, int limit) {
+            if (now != second) {
+                second = now;
+                logged = 0;
+            }
+            if (logged >= limit) {
+                suppressed++;
+
+                return -1;
+            }
+            logged++;
+            long result = suppressed;
+            suppressed = 0;
+
+            return result;
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Отложенная выгрузка в NDJSON: проверки выполнены при создании, строки читаются из БД при записи.
+ */
+@FunctionalInterface
+public interface NdjsonExport {
+
+    void writeTo(OutputStream out) throws IOException;
+}
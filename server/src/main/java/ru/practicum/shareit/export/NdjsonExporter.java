@@ -0,0 +1,80 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Запись результата запроса в NDJSON (объект JSON на строку) по курсору БД.
+ * <p>
+ * Строки читаются из {@link Stream} репозитория в read-only транзакции (размер выборки - в подсказках запроса),
+ * каждые {@code shareit.export.flush-rows} строк ответ сбрасывается клиенту, а контекст персистентности
+ * очищается, поэтому память не зависит от объёма истории.
+ */
+@Component
+public class NdjsonExporter {
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+    private final int flushRows;
+
+    public NdjsonExporter(EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          @Value("${shareit.export.flush-rows:500}") int flushRows) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * @param query  запрос репозитория, возвращающий {@link Stream}
+     * @param mapper entity -> DTO
+     * @return выгрузка; запрос выполняется при {@link NdjsonExport#writeTo}
+     */
+    public <T> NdjsonExport export(Supplier<Stream<T>> query, Function<T, ?> mapper) {
+        return out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> write(query, mapper, out));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private <T> void write(Supplier<Stream<T>> query, Function<T, ?> mapper, OutputStream out) {
+        try (Stream<T> rows = query.get();
+             JsonGenerator generator = writer.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+            // lines are separated by '\n' only, not by the default root separator ' '
+            generator.setRootValueSeparator(null);
+            int count = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                writer.writeValue(generator, mapper.apply(row));
+                generator.writeRaw('\n');
+                if (++count % flushRows == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,21 +11,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.NdjsonExport;
 import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
 import ru.practicum.shareit.item.api.service.ItemService;
+import ru.practicum.shareit.item.api.trending.TrendingWindow;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static ru.practicum.shareit.booking.api.controller.BookingController.checkPageable;
 import static ru.practicum.shareit.constants.Constants.CREATE_COMMENT;
 import static ru.practicum.shareit.constants.Constants.CREATE_ITEM;
+import static ru.practicum.shareit.constants.Constants.CREATE_ITEMS_BULK;
+import static ru.practicum.shareit.constants.Constants.EXPORT_ITEMS;
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_ITEMS;
+import static ru.practicum.shareit.constants.Constants.GET_COMMENTS;
 import static ru.practicum.shareit.constants.Constants.GET_ITEM;
+import static ru.practicum.shareit.constants.Constants.GET_TRENDING_ITEMS;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.SEARCH_ITEM;
 import static ru.practicum.shareit.constants.Constants.SIZE;
@@ -42,6 +55,21 @@ public class ItemController {
         return service.create(userId, itemDto);
     }
 
+    /**
+     * Пакетное создание предметов (строки проверены gateway).
+     *
+     * @param userId User ID - Owner
+     * @param items  Строки импорта
+     * @return Результат по каждой строке
+     */
+    @PostMapping(CREATE_ITEMS_BULK)
+    public List<ItemBulkResultDto> createAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody List<ItemBulkDto> items) {
+
+        return service.createAll(userId, items);
+    }
+
     @PatchMapping(UPDATE_ITEM)
     public ItemDto update(
             @RequestHeader(HEADER_USER_ID) Long userId,
@@ -82,6 +110,32 @@ public class ItemController {
         return service.getAll(userId, checkPageable(from, size), LocalDateTime.now());
     }
 
+    /**
+     * Все вещи владельца одним потоком NDJSON (без пагинации).
+     * <p>
+     * Строка - {@link ItemSimpleDto}, без бронирований и комментариев (в отличие от {@link #getAll}).
+     *
+     * @param userId User ID - Owner
+     */
+    @GetMapping(EXPORT_ITEMS)
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestHeader(HEADER_USER_ID) Long userId) {
+        NdjsonExport export = service.exportAllByOwner(userId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(export::writeTo);
+    }
+
+    /**
+     * Популярные доступные вещи за день, неделю и месяц (из памяти, без запросов к БД).
+     */
+    @GetMapping(GET_TRENDING_ITEMS)
+    public Map<TrendingWindow, TrendingItemsDto> getTrending() {
+
+        return service.getTrending();
+    }
+
     @PostMapping(CREATE_COMMENT)
     public CommentDto createComment(
             @RequestHeader(HEADER_USER_ID) Long userId,
@@ -93,4 +147,14 @@ public class ItemController {
 
         return service.createComment(commentSimpleDto);
     }
+
+    @GetMapping(GET_COMMENTS)
+    public List<CommentDto> getComments(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @PathVariable(name = "id") Long itemId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false, defaultValue = SIZE) Integer size) {
+
+        return service.getComments(userId, itemId, cursor, checkPageable(0, size).getPageSize());
+    }
 }
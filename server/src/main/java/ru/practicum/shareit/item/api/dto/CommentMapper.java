@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.api.dto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.item.api.repository.CommentRepository.CommentView;
 import ru.practicum.shareit.item.entity.CommentEntity;
 
 @Mapper
@@ -12,6 +13,8 @@ public interface CommentMapper {
     @Mapping(target = "authorName", source = "entity.author.name")
     CommentDto toDto(CommentEntity entity);
 
+    CommentDto toDto(CommentView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "item.id", source = "dto.itemId")
     @Mapping(target = "author.id", source = "dto.authorId")
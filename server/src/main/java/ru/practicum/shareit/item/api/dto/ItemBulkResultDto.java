@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат импорта одной строки: {@code id} созданного предмета либо {@code error}.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBulkResultDto {
+    private int line;
+    private Long id;
+    private String error;
+
+    public static ItemBulkResultDto created(int line, Long id) {
+        return new ItemBulkResultDto(line, id, null);
+    }
+
+    public static ItemBulkResultDto failed(int line, String error) {
+        return new ItemBulkResultDto(line, null, error);
+    }
+}
@@ -19,6 +19,8 @@ import java.util.List;
  * {@code name} Name item <br/>
  * {@code description} Description item <br/>
  * {@code available} Available item <br/>
+ * {@code comments} Последние комментарии (не более shareit.item.comments.latest) <br/>
+ * {@code commentsCount} Общее количество комментариев <br/>
  * {@code request} RequestId
  */
 
@@ -34,5 +36,6 @@ public class ItemDto {
     private BookingItemDto lastBooking;
     private BookingItemDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentsCount;
     private Long requestId;
 }
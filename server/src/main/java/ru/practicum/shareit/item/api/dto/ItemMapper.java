@@ -19,6 +19,7 @@ public interface ItemMapper {
     @Mapping(target = "nextBooking", ignore = true)
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
     @Mapping(target = "requestId", source = "entity.request.id")
     ItemDto toDto(Item entity);
 
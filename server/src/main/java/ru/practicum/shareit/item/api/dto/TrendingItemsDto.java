@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Популярные доступные вещи за окно.
+ * <p>
+ * {@code booked} Вещи с наибольшим количеством новых бронирований <br/>
+ * {@code commented} Вещи с наибольшим количеством новых комментариев <br/>
+ * {@code score} Количество событий, недавние весят больше (затухание по длине окна), оценка сверху <br/>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingItemsDto {
+    private List<RankedItemDto> booked;
+    private List<RankedItemDto> commented;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RankedItemDto {
+        private Long id;
+        private String name;
+        private double score;
+    }
+}
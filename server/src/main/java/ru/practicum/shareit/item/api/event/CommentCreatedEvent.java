@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.api.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+
+/**
+ * Комментарий к вещи сохранён.
+ * <p>
+ * Публикуется внутри транзакции создания комментария.
+ */
+@Value
+public class CommentCreatedEvent {
+    Long itemId;
+    CommentDto comment;
+}
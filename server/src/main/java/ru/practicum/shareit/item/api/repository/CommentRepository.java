@@ -1,27 +1,81 @@
 package ru.practicum.shareit.item.api.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.entity.CommentEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     /**
-     * for getAll Items. grouping By Map
+     * for get Item / getAll Items. Не более {@code limit} последних комментариев каждой вещи
+     * и общее количество комментариев вещи (одним запросом).
      *
-     * @param itemIds Item ID
-     * @return Comments
+     * @param itemIds Item IDs
+     * @param limit   Количество последних комментариев на вещь
+     * @return Comments, сгруппированы по вещи, новые первыми
      */
-    @Query("select c from CommentEntity c where c.item.id in ?1 order by c.created DESC")
-    List<CommentEntity> findByItem_IdInOrderByCreatedDesc(List<Long> itemIds);
+    @Query(value = "select c.id as id, c.item_id as itemId, c.text as text, u.name as authorName, " +
+            "c.created as created, c.total as total " +
+            "from (select cm.*, " +
+            "row_number() over (partition by cm.item_id order by cm.created desc, cm.id desc) as rn, " +
+            "count(*) over (partition by cm.item_id) as total " +
+            "from public.comments cm where cm.item_id in (:itemIds)) c " +
+            "join public.users u on u.id = c.author_id " +
+            "where c.rn <= :limit " +
+            "order by c.item_id, c.created desc, c.id desc",
+            nativeQuery = true)
+    List<CommentView> findLatestByItemIds(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("limit") int limit);
 
     /**
-     * for get Item
+     * Первая страница комментариев вещи (keyset pagination).
      *
-     * @param itemId Item ID
-     * @return Comments
+     * @param itemId   Item ID
+     * @param pageable Размер страницы
+     * @return Comments, новые первыми
      */
-    @Query("select c from CommentEntity c where c.item.id = ?1 order by c.created DESC")
-    List<CommentEntity> findAllByItem_IdOrderByCreatedDesc(Long itemId);
-}
\ No newline at end of file
+    @Query("select c from CommentEntity c join fetch c.author " +
+            "where c.item.id = ?1 order by c.created desc, c.id desc")
+    List<CommentEntity> findFirstPageByItem_Id(Long itemId, Pageable pageable);
+
+    /**
+     * Следующая страница комментариев вещи: комментарии старше курсора (created, id).
+     *
+     * @param itemId   Item ID
+     * @param created  Время последнего полученного комментария
+     * @param id       ID последнего полученного комментария
+     * @param pageable Размер страницы
+     * @return Comments, новые первыми
+     */
+    @Query("select c from CommentEntity c join fetch c.author " +
+            "where c.item.id = :itemId and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentEntity> findNextPageByItem_Id(
+            @Param("itemId") Long itemId,
+            @Param("created") LocalDateTime created,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Комментарий вместе с общим количеством комментариев его вещи.
+     */
+    interface CommentView {
+        Long getId();
+
+        Long getItemId();
+
+        String getText();
+
+        String getAuthorName();
+
+        LocalDateTime getCreated();
+
+        Long getTotal();
+    }
+}
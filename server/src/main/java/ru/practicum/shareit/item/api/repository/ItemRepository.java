@@ -4,17 +4,34 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.practicum.shareit.constants.Constants.EXPORT_FETCH_SIZE;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
     @Query("select i from Item i where i.owner.id = ?1 order by i.id")
     List<Item> findAllByOwner_Id(Long id, Pageable pageable);
 
+    /**
+     * Курсор по всем вещам владельца. Читать в транзакции и закрывать поток.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select i from Item i left join fetch i.request where i.owner.id = ?1 order by i.id")
+    Stream<Item> streamAllByOwner_Id(Long id);
+
     @Query("select i from Item i " +
             "where ( " +
             "upper(i.name) like upper(concat('%', :search, '%')) or upper(i.description) like upper(concat('%', :search, '%')) " +
@@ -81,5 +98,18 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @Query("select i from Item i where i.request in ?1")
     List<Item> findByRequestIn(List<ItemRequest> requests);
+
+    /**
+     * @param ids Item IDs
+     * @return ID и названия доступных для бронирования вещей из {@code ids}
+     */
+    @Query("select i.id as id, i.name as name from Item i where i.id in :ids and i.available = true")
+    List<ItemNameView> findAvailableByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface ItemNameView {
+        Long getId();
+
+        String getName();
+    }
 }
 
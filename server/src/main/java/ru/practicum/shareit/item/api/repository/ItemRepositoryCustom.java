@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.api.repository;
+
+import ru.practicum.shareit.item.entity.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+    /**
+     * - - - - - - - - - - - - - - - - - - INSERT BATCH
+     * <p>
+     * Вставка вещей пакетами JDBC (batch) в обход контекста персистентности.
+     * ID выделяются из {@code items_seq} и записываются в {@link Item#setId}.
+     *
+     * @param items Новые вещи; у {@code owner} и {@code request} нужен только ID
+     */
+    void insertAll(List<Item> items);
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.sql.Types;
+import java.util.List;
+
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final String INSERT_ITEM = "insert into public.items " +
+            "(id, name, description, available, owner_id, item_request_id) values (?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_ID_BLOCK = "select nextval('public.items_seq')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${shareit.item.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void insertAll(List<Item> items) {
+        if (items.isEmpty()) {
+
+            return;
+        }
+        allocateIds(items);
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, batchSize, (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setString(2, item.getName());
+            ps.setString(3, item.getDescription());
+            ps.setBoolean(4, item.isAvailable());
+            ps.setLong(5, item.getOwner().getId());
+            if (item.getRequest() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, item.getRequest().getId());
+            }
+        });
+    }
+
+    /**
+     * ID блоками, как у Hibernate (pooled-lo): значение последовательности {@code v} - ID {@code v..v+49}.
+     */
+    private void allocateIds(List<Item> items) {
+        long next = 0;
+        long blockEnd = 0;
+        for (Item item : items) {
+            if (next == blockEnd) {
+                next = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+                blockEnd = next + ID_ALLOCATION_SIZE;
+            }
+            item.setId(next++);
+        }
+    }
+}
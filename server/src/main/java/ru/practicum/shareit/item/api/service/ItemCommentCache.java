@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.api.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+import ru.practicum.shareit.item.api.dto.CommentMapper;
+import ru.practicum.shareit.item.api.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.api.repository.CommentRepository;
+import ru.practicum.shareit.item.api.repository.CommentRepository.CommentView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Кеш последних комментариев вещей для {@code /items} и {@code /items/{id}}.
+ * <p>
+ * Хранит не более {@code latest} последних комментариев и их общее количество
+ * для не более {@code max-items} вещей (LRU). Новый комментарий добавляется
+ * в начало записи после commit, без повторного чтения из БД.
+ * <p>
+ * Кеш локален для экземпляра: комментарий, созданный через другой экземпляр,
+ * и каскадное удаление комментариев вместе с пользователем видны после {@code ttl-seconds},
+ * поэтому TTL - секунды. Промахи читаются в отдельной транзакции на основной БД,
+ * а не на реплике: отстающая реплика не должна попасть в кеш на весь TTL.
+ */
+@Component
+public class ItemCommentCache {
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final int latestSize;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private long modCount;
+
+    public ItemCommentCache(
+            CommentRepository commentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.item.comments.latest:10}") int latestSize,
+            @Value("${shareit.item.comments.cache.max-items:10000}") int maxItems,
+            @Value("${shareit.item.comments.cache.ttl-seconds:5}") long ttlSeconds) {
+        this.commentRepository = commentRepository;
+        // not read-only: ReplicaRoutingDataSource sends only read-only transactions to replicas
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.latestSize = latestSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public int getLatestSize() {
+        return latestSize;
+    }
+
+    /**
+     * @param itemId Item ID
+     * @return Последние комментарии и их общее количество
+     */
+    public ItemComments get(Long itemId) {
+        return getAll(List.of(itemId)).get(itemId);
+    }
+
+    /**
+     * Промахи кеша загружаются одним запросом.
+     *
+     * @param itemIds Item IDs
+     * @return Item ID -> последние комментарии и их общее количество
+     */
+    public Map<Long, ItemComments> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemComments> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        long now = System.nanoTime();
+        long version;
+        synchronized (this) {
+            version = modCount;
+            for (Long itemId : itemIds) {
+                Entry entry = entries.get(itemId);
+                if (entry != null && now - entry.getLoadedAt() < ttlNanos) {
+                    result.put(itemId, entry.getComments());
+                } else {
+                    misses.add(itemId);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+
+            return result;
+        }
+
+        Map<Long, ItemComments> fresh = primaryTransaction.execute(status -> load(misses));
+        synchronized (this) {
+            // a comment was created while loading: the loaded rows may miss it
+            if (version == modCount) {
+                fresh.forEach((itemId, comments) -> entries.put(itemId, new Entry(comments, now)));
+            }
+        }
+        result.putAll(fresh);
+
+        return result;
+    }
+
+    private Map<Long, ItemComments> load(List<Long> itemIds) {
+        Map<Long, List<CommentView>> loaded = commentRepository.findLatestByItemIds(itemIds, latestSize)
+                .stream()
+                .collect(groupingBy(CommentView::getItemId, toList()));
+        Map<Long, ItemComments> comments = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<CommentView> views = loaded.getOrDefault(itemId, List.of());
+            comments.put(itemId, new ItemComments(
+                    views.stream().map(CommentMapper.INSTANCE::toDto).collect(toUnmodifiableList()),
+                    views.isEmpty() ? 0 : views.get(0).getTotal()));
+        }
+
+        return comments;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCommentCreated(CommentCreatedEvent event) {
+        modCount++;
+        Entry entry = entries.get(event.getItemId());
+        if (entry == null) {
+
+            return;
+        }
+        ItemComments cached = entry.getComments();
+        List<CommentDto> latest = new ArrayList<>(Math.min(cached.getLatest().size() + 1, latestSize));
+        latest.add(event.getComment());
+        cached.getLatest().stream()
+                .limit(latestSize - 1L)
+                .forEach(latest::add);
+        entries.put(event.getItemId(), new Entry(
+                new ItemComments(List.copyOf(latest), cached.getCount() + 1),
+                entry.getLoadedAt()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemComments {
+        private final List<CommentDto> latest;
+        private final long count;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final ItemComments comments;
+        private final long loadedAt;
+    }
+}
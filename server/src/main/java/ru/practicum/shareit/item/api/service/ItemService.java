@@ -1,24 +1,38 @@
 package ru.practicum.shareit.item.api.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.export.NdjsonExport;
 import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
+import ru.practicum.shareit.item.api.trending.TrendingWindow;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     ItemDto create(Long userId, ItemSimpleDto itemDto);
 
+    List<ItemBulkResultDto> createAll(Long userId, List<ItemBulkDto> items);
+
     ItemDto update(Long userId, Long itemId, ItemSimpleDto dto);
 
     ItemDto get(Long userId, Long itemId);
 
     List<ItemDto> getAll(Long userId, Pageable pageable, LocalDateTime now);
 
+    NdjsonExport exportAllByOwner(Long ownerId);
+
     List<ItemSimpleDto> search(String searchText, Pageable pageable);
 
     CommentDto createComment(CommentSimpleDto commentSimpleDto);
+
+    List<CommentDto> getComments(Long userId, Long itemId, Long cursor, int size);
+
+    Map<TrendingWindow, TrendingItemsDto> getTrending();
 }
@@ -1,25 +1,38 @@
 package ru.practicum.shareit.item.api.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.api.dto.BookingItemDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
+import ru.practicum.shareit.booking.api.eligibility.BookingEligibilityIndex;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.constants.Constants;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.export.NdjsonExport;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentMapper;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
+import ru.practicum.shareit.item.api.event.CommentCreatedEvent;
 import ru.practicum.shareit.item.api.repository.CommentRepository;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.service.ItemCommentCache.ItemComments;
+import ru.practicum.shareit.item.api.trending.ItemTrendingAggregator;
+import ru.practicum.shareit.item.api.trending.TrendingWindow;
 import ru.practicum.shareit.item.entity.CommentEntity;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.request.entity.ItemRequest;
@@ -28,14 +41,15 @@ import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
@@ -44,7 +58,8 @@ import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ItemServiceImpl implements ItemService {
     private final Sort sortStartAsc =
             Sort.by(Sort.Direction.ASC, "start");
@@ -54,8 +69,13 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRequestRepository itemRequestRepository;
 
     private final BookingRepository bookingRepository;
+    private final BookingEligibilityIndex bookingEligibilityIndex;
     private final CommentRepository commentRepository;
+    private final ItemCommentCache itemCommentCache;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemTrendingAggregator itemTrendingAggregator;
 
     /**
      * Создание предмета
@@ -66,6 +86,7 @@ public class ItemServiceImpl implements ItemService {
      * @param itemDto Данные нового объекта
      * @return Созданный объект, после всех проверок условий
      */
+    @Transactional
     @Override
     public ItemDto create(Long userId, ItemSimpleDto itemDto) {
         log.debug("[i] CREATE ITEM:{} by User.id:{}", itemDto, userId);
@@ -85,6 +106,62 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.INSTANCE.toDto(itemRepository.save(item));
     }
 
+    /**
+     * Пакетное создание предметов (импорт).
+     * <p>
+     * Пользователь проверяется один раз, ссылки на запросы - одним запросом на все строки,
+     * вставка - JDBC batch. Строка со ссылкой на несуществующий запрос не создаётся,
+     * остальные строки создаются.
+     *
+     * @param userId Идентификатор владелец предметов
+     * @param items  Строки импорта, проверенные gateway
+     * @return Результат по каждой строке в порядке {@code items}
+     */
+    @Transactional
+    @Override
+    public List<ItemBulkResultDto> createAll(Long userId, List<ItemBulkDto> items) {
+        log.debug("[i] CREATE {} ITEMS by User.id:{}", items.size(), userId);
+        checkingExistUserById(userId);
+
+        Set<Long> requestIds = items.stream()
+                .map(ItemBulkDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Set.of()
+                : itemRequestRepository.findExistingIds(requestIds);
+
+        User owner = User.builder().id(userId).build();
+        List<ItemBulkResultDto> results = new ArrayList<>(items.size());
+        List<Item> created = new ArrayList<>(items.size());
+        for (ItemBulkDto dto : items) {
+            Long requestId = dto.getRequestId();
+            if (requestId != null && !existingRequestIds.contains(requestId)) {
+                results.add(ItemBulkResultDto.failed(dto.getLine(), format(Constants.REQUEST_NOT_EXISTS, requestId)));
+                continue;
+            }
+            Item item = Item.builder()
+                    .name(dto.getName())
+                    .description(dto.getDescription())
+                    .available(Boolean.TRUE.equals(dto.getAvailable()))
+                    .owner(owner)
+                    .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                    .build();
+            created.add(item);
+            results.add(ItemBulkResultDto.created(dto.getLine(), null));
+        }
+        itemRepository.insertAll(created);
+
+        int next = 0;
+        for (ItemBulkResultDto result : results) {
+            if (result.getError() == null) {
+                result.setId(created.get(next++).getId());
+            }
+        }
+
+        return results;
+    }
+
     /**
      * Updating an item
      * <p>
@@ -103,6 +180,7 @@ public class ItemServiceImpl implements ItemService {
      *                Доступность предмета
      * @return itemDTO
      */
+    @Transactional
     @Override
     public ItemDto update(Long ownerId, Long itemId, ItemSimpleDto itemDto) {
         log.debug("[i] UPDATE ITEM");
@@ -167,18 +245,15 @@ public class ItemServiceImpl implements ItemService {
                 .map(BookingMapper.INSTANCE::toItemDto)
                 .findFirst()
                 .orElse(null);
-        List<CommentDto> comments = commentRepository
-                .findAllByItem_IdOrderByCreatedDesc(itemId)
-                .stream()
-                .map(CommentMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+        ItemComments comments = itemCommentCache.get(itemId);
 
         boolean isUserByOwnerByItem = item.getOwner().getId().equals(userId);
         if (isUserByOwnerByItem) {
             itemDto.setLastBooking(lastBooking);
             itemDto.setNextBooking(nextBooking);
         }
-        itemDto.setComments(comments);
+        itemDto.setComments(comments.getLatest());
+        itemDto.setCommentsCount(comments.getCount());
 
         return itemDto;
     }
@@ -194,7 +269,6 @@ public class ItemServiceImpl implements ItemService {
      * @return List of user's items
      */
 
-    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getAll(Long ownerId, Pageable pageable, LocalDateTime now) {
         checkingExistUserById(ownerId);
@@ -225,40 +299,20 @@ public class ItemServiceImpl implements ItemService {
                         Function.identity(),
                         (first, second) -> first));
 
-        Map<Long, List<CommentEntity>> commentStorage = commentRepository
-                .findByItem_IdInOrderByCreatedDesc(itemIds)
-                .stream()
-                .filter(Objects::nonNull)
-                .collect(groupingBy((comment) -> comment.getItem().getId(), toList()));
+        Map<Long, ItemComments> commentStorage = itemCommentCache.getAll(itemIds);
 
         itemsDto.forEach(itemDto -> {
             Long itemId = itemDto.getId();
             itemDto.setLastBooking(lastBookingStorage.get(itemId));
             itemDto.setNextBooking(nextBookingStorage.get(itemId));
-            itemDto.setComments(getCommentDto(commentStorage.get(itemId)));
+            ItemComments comments = commentStorage.get(itemId);
+            itemDto.setComments(comments.getLatest());
+            itemDto.setCommentsCount(comments.getCount());
         });
 
         return itemsDto;
     }
 
-    /**
-     * Creating a list of comments for the backend
-     *
-     * @param comments comments from DB
-     * @return list of comments for the backend
-     */
-    private List<CommentDto> getCommentDto(
-            List<CommentEntity> comments) {
-        if (comments == null) {
-
-            return null;
-        }
-
-        return comments.stream()
-                .map(CommentMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Search for an item in the repository
      * <p>
@@ -307,9 +361,8 @@ public class ItemServiceImpl implements ItemService {
                         format(Constants.USER_NOT_EXISTS, authorId)));
         checkingExistItemById(itemId);
 
-        boolean notExistBooking = !bookingRepository
-                .existsCompletedBookingByTheUserOfTheItem(
-                        itemId, authorId, APPROVED, commentSimpleDto.getCreated());
+        boolean notExistBooking = !bookingEligibilityIndex
+                .isEligible(itemId, authorId, commentSimpleDto.getCreated());
         if (notExistBooking) {
             throw new BadRequestException(
                     format("User with ID:(%d) has never booked an item with ID:(%d)\n" +
@@ -320,8 +373,82 @@ public class ItemServiceImpl implements ItemService {
         CommentEntity comment = CommentMapper.INSTANCE.toEntity(commentSimpleDto);
         comment.setAuthor(author);
 
-        return CommentMapper.INSTANCE.toDto(
+        CommentDto commentDto = CommentMapper.INSTANCE.toDto(
                 commentRepository.save(comment));
+        eventPublisher.publishEvent(new CommentCreatedEvent(itemId, commentDto));
+
+        return commentDto;
+    }
+
+    /**
+     * Comments of the item, newest first (keyset pagination).
+     * Target:
+     * {@code (/items/{id}/comments?cursor={commentId}&size={size})}
+     * <p>
+     * The first page within {@code shareit.item.comments.latest} is served from the cache.
+     *
+     * @param userId User ID
+     * @param itemId Item ID
+     * @param cursor ID of the last received comment (null - first page)
+     * @param size   Page size
+     * @return Comments older than the cursor
+     */
+    @Override
+    public List<CommentDto> getComments(Long userId, Long itemId, Long cursor, int size) {
+        checkingExistUserById(userId);
+        checkingExistItemById(itemId);
+
+        if (cursor == null) {
+            if (size <= itemCommentCache.getLatestSize()) {
+                List<CommentDto> latest = itemCommentCache.get(itemId).getLatest();
+
+                return latest.subList(0, Math.min(size, latest.size()));
+            }
+
+            return commentRepository.findFirstPageByItem_Id(itemId, Pageable.ofSize(size))
+                    .stream()
+                    .map(CommentMapper.INSTANCE::toDto)
+                    .collect(toList());
+        }
+
+        CommentEntity last = commentRepository.findById(cursor)
+                .filter(comment -> comment.getItem().getId().equals(itemId))
+                .orElseThrow(() -> new BadRequestException(
+                        format("Comment with id:(%d) is not a comment of the item with id:(%d)", cursor, itemId)));
+
+        return commentRepository.findNextPageByItem_Id(itemId, last.getCreated(), last.getId(), Pageable.ofSize(size))
+                .stream()
+                .map(CommentMapper.INSTANCE::toDto)
+                .collect(toList());
+    }
+
+    /**
+     * Все вещи владельца в NDJSON: курсор БД вместо страниц, без бронирований и комментариев.
+     *
+     * @param ownerId User ID
+     * @return Выгрузка, строки читаются из БД при записи ответа
+     */
+    @Override
+    public NdjsonExport exportAllByOwner(Long ownerId) {
+        checkingExistUserById(ownerId);
+
+        return ndjsonExporter.export(
+                () -> itemRepository.streamAllByOwner_Id(ownerId),
+                ItemMapper.INSTANCE::toSimpleDto);
+    }
+
+    /**
+     * Most booked and most commented available items over the last day, week and month.
+     * Target:
+     * {@code (/items/trending)}
+     * <p>
+     * Served from memory, refreshed by {@link ItemTrendingAggregator} in the background.
+     *
+     * @return Trending items by window
+     */
+    @Override
+    public Map<TrendingWindow, TrendingItemsDto> getTrending() {
+        return itemTrendingAggregator.get();
     }
 
     /**
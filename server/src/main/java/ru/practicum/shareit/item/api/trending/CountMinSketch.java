@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.api.trending;
+
+/**
+ * Count-min sketch для long-ключей: {@code depth} строк по {@code width} счётчиков на одном массиве.
+ * <p>
+ * Оценка частоты - минимум по строкам, не меньше точной; превышение не больше {@code e / width}
+ * от суммы всех добавлений с вероятностью {@code 1 - e^-depth}. Добавление консервативное:
+ * счётчики поднимаются только до новой оценки ключа, что уменьшает завышение от коллизий.
+ * Счётчики дробные, {@link #scale} умножает все на коэффициент (затухание).
+ * Не потокобезопасен.
+ */
+class CountMinSketch {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final double[] counts;
+    private final int depth;
+    private final int width;
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counts = new double[depth * this.width];
+    }
+
+    /**
+     * @return Оценка частоты ключа после добавления
+     */
+    double add(long key, double weight) {
+        double estimate = estimate(key) + weight;
+        for (int row = 0; row < depth; row++) {
+            int slot = slot(row, key);
+            if (counts[slot] < estimate) {
+                counts[slot] = estimate;
+            }
+        }
+
+        return estimate;
+    }
+
+    /**
+     * @return Оценка частоты ключа (сверху)
+     */
+    double estimate(long key) {
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[slot(row, key)]);
+        }
+
+        return estimate;
+    }
+
+    void scale(double factor) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] *= factor;
+        }
+    }
+
+    private int slot(int row, long key) {
+        return row * width + ((int) mix(key + SEED * (row + 1)) & mask);
+    }
+
+    /**
+     * Финализатор SplitMix64: соседние ID попадают в независимые ячейки.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.api.trending;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Затухающая частота ключей за окно и кандидаты в лидеры.
+ * <p>
+ * Каждое событие весит 1 и затухает как {@code e^(-возраст / окно)}: частота - сумма весов в
+ * {@link CountMinSketch}, затухание применяется ко всем счётчикам сразу в {@link #decay}.
+ * Кандидаты - не более {@code capacity} ключей с наибольшей оценкой; новый ключ вытесняет
+ * кандидата с наименьшей, если его оценка больше. {@link #top} выбирает лидеров кучей размера {@code limit}.
+ * Не потокобезопасен.
+ */
+class DecayedTopK {
+    /**
+     * Кандидат с меньшей оценкой забывается (около трёх окон без событий).
+     */
+    private static final double MIN_SCORE = 0.05;
+
+    private final CountMinSketch sketch;
+    private final double windowNanos;
+    private final int capacity;
+    private final Map<Long, Double> candidates = new HashMap<>();
+    private double floor;
+    private long decayedAt;
+
+    DecayedTopK(long windowNanos, int capacity, int depth, int width, long nanos) {
+        this.sketch = new CountMinSketch(depth, width);
+        this.windowNanos = windowNanos;
+        this.capacity = capacity;
+        this.decayedAt = nanos;
+    }
+
+    void add(long key) {
+        double estimate = sketch.add(key, 1);
+        if (candidates.size() < capacity || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+
+            return;
+        }
+        // оценки кандидатов между затуханиями только растут: floor - нижняя граница минимума
+        if (estimate <= floor) {
+
+            return;
+        }
+        Map.Entry<Long, Double> min = null;
+        for (Map.Entry<Long, Double> candidate : candidates.entrySet()) {
+            if (min == null || candidate.getValue() < min.getValue()) {
+                min = candidate;
+            }
+        }
+        floor = min.getValue();
+        if (estimate > floor) {
+            candidates.remove(min.getKey());
+            candidates.put(key, estimate);
+        }
+    }
+
+    void decay(long nanos) {
+        if (nanos <= decayedAt) {
+
+            return;
+        }
+        double factor = Math.exp(-(nanos - decayedAt) / windowNanos);
+        sketch.scale(factor);
+        candidates.replaceAll((key, score) -> score * factor);
+        candidates.values().removeIf(score -> score < MIN_SCORE);
+        floor *= factor;
+        decayedAt = nanos;
+    }
+
+    /**
+     * @return Не более {@code limit} ключей и их оценок, по убыванию оценки
+     */
+    List<Map.Entry<Long, Double>> top(int limit) {
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Long key : candidates.keySet()) {
+            heap.add(new AbstractMap.SimpleImmutableEntry<>(key, sketch.estimate(key)));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(heap.poll());
+        }
+        Collections.reverse(top);
+
+        return top;
+    }
+}
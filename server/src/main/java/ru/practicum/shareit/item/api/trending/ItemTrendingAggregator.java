@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.api.trending;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto.RankedItemDto;
+import ru.practicum.shareit.item.api.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.repository.ItemRepository.ItemNameView;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Популярные вещи для {@code GET /items/trending} по событиям, без GROUP BY по {@code bookings} и {@code comments}.
+ * <p>
+ * Новые бронирования и комментарии после commit попадают в {@link DecayedTopK} каждого окна
+ * ({@link TrendingWindow}): count-min sketch ({@code sketch.width} x {@code sketch.depth}) и
+ * не более {@code candidates} кандидатов. Каждые {@code refresh-ms} счётчики затухают, из кандидатов
+ * выбираются {@code size} доступных для бронирования вещей (один запрос по ID), ответ отдаётся из памяти.
+ * <p>
+ * Счётчики в памяти экземпляра: после перезапуска рейтинг набирается заново,
+ * при нескольких экземплярах каждый видит свои события.
+ */
+@Slf4j
+@Component
+public class ItemTrendingAggregator {
+    private final ItemRepository itemRepository;
+    private final int size;
+    private final int candidates;
+    private final Map<TrendingWindow, DecayedTopK> booked = new EnumMap<>(TrendingWindow.class);
+    private final Map<TrendingWindow, DecayedTopK> commented = new EnumMap<>(TrendingWindow.class);
+    private volatile Map<TrendingWindow, TrendingItemsDto> trending;
+
+    public ItemTrendingAggregator(
+            ItemRepository itemRepository,
+            @Value("${shareit.item.trending.size:10}") int size,
+            @Value("${shareit.item.trending.candidates:100}") int candidates,
+            @Value("${shareit.item.trending.sketch.depth:4}") int depth,
+            @Value("${shareit.item.trending.sketch.width:2048}") int width) {
+        this.itemRepository = itemRepository;
+        this.size = size;
+        this.candidates = Math.max(size, candidates);
+        long nanos = System.nanoTime();
+        Map<TrendingWindow, TrendingItemsDto> empty = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            long windowNanos = window.getDuration().toNanos();
+            booked.put(window, new DecayedTopK(windowNanos, this.candidates, depth, width, nanos));
+            commented.put(window, new DecayedTopK(windowNanos, this.candidates, depth, width, nanos));
+            empty.put(window, new TrendingItemsDto(List.of(), List.of()));
+        }
+        this.trending = Collections.unmodifiableMap(empty);
+    }
+
+    /**
+     * @return Популярные вещи по окнам на момент последнего обновления
+     */
+    public Map<TrendingWindow, TrendingItemsDto> get() {
+        return trending;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingCreated(BookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null) {
+            add(booked, event.getItemId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        add(commented, event.getItemId());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item.trending.refresh-ms:60000}",
+            fixedDelayString = "${shareit.item.trending.refresh-ms:60000}")
+    public void refresh() {
+        refresh(System.nanoTime());
+    }
+
+    void refresh(long nanos) {
+        Map<TrendingWindow, List<Map.Entry<Long, Double>>> topBooked = new EnumMap<>(TrendingWindow.class);
+        Map<TrendingWindow, List<Map.Entry<Long, Double>>> topCommented = new EnumMap<>(TrendingWindow.class);
+        Set<Long> itemIds = new HashSet<>();
+        synchronized (this) {
+            for (TrendingWindow window : TrendingWindow.values()) {
+                topBooked.put(window, top(booked.get(window), nanos, itemIds));
+                topCommented.put(window, top(commented.get(window), nanos, itemIds));
+            }
+        }
+        Map<Long, String> available = itemIds.isEmpty()
+                ? Map.of()
+                : itemRepository.findAvailableByIdIn(itemIds).stream()
+                .collect(toMap(ItemNameView::getId, ItemNameView::getName));
+
+        Map<TrendingWindow, TrendingItemsDto> fresh = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            fresh.put(window, new TrendingItemsDto(
+                    rank(topBooked.get(window), available),
+                    rank(topCommented.get(window), available)));
+        }
+        trending = Collections.unmodifiableMap(fresh);
+        log.debug("[i] TRENDING ITEMS REFRESHED: {} candidates, {} available", itemIds.size(), available.size());
+    }
+
+    private synchronized void add(Map<TrendingWindow, DecayedTopK> counters, Long itemId) {
+        for (DecayedTopK counter : counters.values()) {
+            counter.add(itemId);
+        }
+    }
+
+    private List<Map.Entry<Long, Double>> top(DecayedTopK counter, long nanos, Set<Long> itemIds) {
+        counter.decay(nanos);
+        List<Map.Entry<Long, Double>> top = counter.top(candidates);
+        top.forEach(entry -> itemIds.add(entry.getKey()));
+
+        return top;
+    }
+
+    private List<RankedItemDto> rank(List<Map.Entry<Long, Double>> top, Map<Long, String> available) {
+        return top.stream()
+                .filter(entry -> available.containsKey(entry.getKey()))
+                .limit(size)
+                .map(entry -> new RankedItemDto(entry.getKey(), available.get(entry.getKey()),
+                        Math.round(entry.getValue() * 100) / 100.0))
+                .collect(toList());
+    }
+}
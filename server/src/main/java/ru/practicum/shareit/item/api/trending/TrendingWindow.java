@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.api.trending;
+
+import java.time.Duration;
+
+/**
+ * Окно популярности вещей для {@code GET /items/trending}.
+ */
+public enum TrendingWindow {
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7)),
+    MONTH(Duration.ofDays(30));
+
+    private final Duration duration;
+
+    TrendingWindow(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+}
@@ -13,9 +13,12 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
+
 @Entity
 @Table(name = "COMMENTS", schema = "PUBLIC")
 @Builder
@@ -25,7 +28,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class CommentEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", schema = "public",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String text;
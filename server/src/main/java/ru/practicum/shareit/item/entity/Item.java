@@ -17,8 +17,11 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
+
 /**
  * {@link Item}Класс Предмет.
  * <p>
@@ -39,7 +42,9 @@ import javax.persistence.Table;
 @Table(name = "items", schema = "public")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", schema = "public",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
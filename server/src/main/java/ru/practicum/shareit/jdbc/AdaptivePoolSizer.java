@@ -0,0 +1,168 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Размер пулов соединений по нагрузке ({@code shareit.datasource.pool.adaptive.enabled=true}).
+ * <p>
+ * Каждые {@code interval-ms} по таймерам Hikari ({@code hikaricp.connections.usage} и {@code .acquire}) считается
+ * средняя потребность в соединениях по закону Литтла: выдач в секунду × (время удержания соединения, то есть
+ * задержка БД вместе с работой транзакции, + ожидание соединения). Размер пула - потребность × {@code headroom},
+ * от {@code min-size} до {@code max-size}; пул фиксированный (min-idle = max), как рекомендует Hikari.
+ * {@code max-size} ограничен {@code connections-per-cpu} на доступный процессор (учитывает лимит CPU контейнера):
+ * на 0.5 CPU лишние соединения дают не пропускную способность, а переключения контекста и очередь в БД.
+ * <p>
+ * Если при замере есть потоки в ожидании соединения, пул растёт хотя бы на одно соединение;
+ * уменьшается не больше чем на одно за замер (лишние соединения закрываются по {@code max-lifetime}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final double headroom;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+    private volatile List<HikariDataSource> pools;
+
+    public AdaptivePoolSizer(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.datasource.pool.adaptive.min-size:2}") int minSize,
+            @Value("${shareit.datasource.pool.adaptive.max-size:20}") int maxSize,
+            @Value("${shareit.datasource.pool.adaptive.connections-per-cpu:4}") int connectionsPerCpu,
+            @Value("${shareit.datasource.pool.adaptive.headroom:1.2}") double headroom) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = Math.max(minSize,
+                Math.min(maxSize, Runtime.getRuntime().availableProcessors() * connectionsPerCpu));
+        this.headroom = headroom;
+        log.info("[i] Adaptive connection pool size {}..{}", this.minSize, this.maxSize);
+    }
+
+    /**
+     * Замер и изменение размера всех пулов.
+     */
+    @Scheduled(initialDelayString = "${shareit.datasource.pool.adaptive.interval-ms:10000}",
+            fixedDelayString = "${shareit.datasource.pool.adaptive.interval-ms:10000}")
+    public void resize() {
+        for (HikariDataSource pool : getPools()) {
+            resize(pool, System.nanoTime());
+        }
+    }
+
+    /**
+     * @return новый размер пула, {@code -1} - первый замер или пул ещё не запущен
+     */
+    int resize(HikariDataSource pool, long now) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool.getPoolName()).timer();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool.getPoolName()).timer();
+        if (poolBean == null || usage == null || acquire == null) {
+
+            return -1;
+        }
+        Sample sample = new Sample(now, usage.count(), usage.totalTime(TimeUnit.MILLISECONDS),
+                acquire.totalTime(TimeUnit.MILLISECONDS));
+        Sample previous = samples.put(pool.getPoolName(), sample);
+        if (previous == null || now <= previous.nanos) {
+
+            return -1;
+        }
+
+        long checkouts = sample.checkouts - previous.checkouts;
+        double seconds = (now - previous.nanos) / 1e9;
+        double holdMillis = checkouts == 0 ? 0 : (sample.usageMillis - previous.usageMillis) / checkouts;
+        double waitMillis = checkouts == 0 ? 0 : (sample.acquireMillis - previous.acquireMillis) / checkouts;
+        double demand = checkouts / seconds * (holdMillis + waitMillis) / 1000;
+
+        int current = pool.getMaximumPoolSize();
+        int target = (int) Math.ceil(demand * headroom);
+        if (poolBean.getThreadsAwaitingConnection() > 0) {
+            target = Math.max(target, current + 1);
+        }
+        target = Math.max(target, current - 1);
+        target = Math.min(Math.max(target, minSize), maxSize);
+        if (target != current) {
+            HikariConfigMXBean config = pool.getHikariConfigMXBean();
+            if (target > current) {
+                config.setMaximumPoolSize(target);
+                config.setMinimumIdle(target);
+            } else {
+                config.setMinimumIdle(target);
+                config.setMaximumPoolSize(target);
+            }
+            log.info("[i] Pool {} resized {} -> {}: {} checkouts/s, hold {} ms, wait {} ms",
+                    pool.getPoolName(), current, target, Math.round(checkouts / seconds),
+                    Math.round(holdMillis), Math.round(waitMillis));
+        }
+
+        return target;
+    }
+
+    private List<HikariDataSource> getPools() {
+        if (pools == null) {
+            pools = findPools(dataSource);
+        }
+
+        return pools;
+    }
+
+    static List<HikariDataSource> findPools(DataSource dataSource) {
+        List<DataSource> candidates = new ArrayList<>();
+        try {
+            if (dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+                candidates.addAll(dataSource.unwrap(ReplicaRoutingDataSource.class).getDataSources());
+            } else {
+                candidates.add(dataSource);
+            }
+        } catch (SQLException e) {
+            candidates.add(dataSource);
+        }
+        List<HikariDataSource> found = new ArrayList<>();
+        for (DataSource candidate : candidates) {
+            HikariDataSource pool = DataSourceUnwrapper.unwrap(candidate, HikariConfigMXBean.class,
+                    HikariDataSource.class);
+            if (pool != null) {
+                found.add(pool);
+            }
+        }
+
+        return found;
+    }
+
+    private static class Sample {
+        final long nanos;
+        final long checkouts;
+        final double usageMillis;
+        final double acquireMillis;
+
+        Sample(long nanos, long checkouts, double usageMillis, double acquireMillis) {
+            this.nanos = nanos;
+            this.checkouts = checkouts;
+            this.usageMillis = usageMillis;
+            this.acquireMillis = acquireMillis;
+        }
+    }
+}
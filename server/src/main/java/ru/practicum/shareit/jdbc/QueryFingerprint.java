@@ -0,0 +1,27 @@
+package ru.practicum.shareit.jdbc;
+
+import java.util.regex.Pattern;
+
+/**
+ * Отпечаток SQL: литералы и списки параметров заменены на {@code ?}, пробелы схлопнуты.
+ * Запросы, отличающиеся только значениями, дают один отпечаток.
+ */
+public final class QueryFingerprint {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile(
+            "\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("in (?+)");
+
+        return fingerprint.trim().toLowerCase();
+    }
+}
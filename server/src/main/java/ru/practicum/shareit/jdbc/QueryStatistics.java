@@ -0,0 +1,17 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.Value;
+
+/**
+ * Сводка по одному отпечатку SQL для {@code /actuator/queries}.
+ */
+@Value
+public class QueryStatistics {
+    String fingerprint;
+    long count;
+    long totalMillis;
+    long maxMillis;
+    double meanMillis;
+    long rows;
+    long slow;
+}
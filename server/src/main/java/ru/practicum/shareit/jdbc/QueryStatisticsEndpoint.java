@@ -0,0 +1,29 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/queries} - статистика SQL по отпечаткам, {@code DELETE} - сброс.
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueryStatisticsEndpoint {
+    private final QueryStatisticsListener listener;
+
+    @ReadOperation
+    public List<QueryStatistics> queries() {
+        return listener.getStatistics();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        listener.reset();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика JDBC-запросов по отпечаткам: число выполнений, суммарное и максимальное время,
+ * прочитанные/изменённые строки. Запросы дольше {@code shareit.jdbc.slow-query-ms} пишутся в лог
+ * без значений параметров.
+ * <p>
+ * Подключается к datasource-proxy, которым Sleuth оборачивает {@code DataSource}.
+ * Строки {@code SELECT} считаются по {@code ResultSet.next()} в потоке, выполнившем запрос.
+ */
+@Slf4j
+@Component
+public class QueryStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+    static final String OTHER = "other";
+
+    private final long slowQueryMillis;
+    private final int maxFingerprints;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Stats> statistics = new ConcurrentHashMap<>();
+    private final ThreadLocal<Stats> reading = new ThreadLocal<>();
+
+    public QueryStatisticsListener(
+            @Value("${shareit.jdbc.slow-query-ms:200}") long slowQueryMillis,
+            @Value("${shareit.jdbc.max-fingerprints:1000}") int maxFingerprints) {
+        this.slowQueryMillis = slowQueryMillis;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String fingerprint = getFingerprint(queryInfo.getQuery());
+            Stats stats = getStats(fingerprint);
+            stats.record(elapsed, getUpdatedRows(execInfo.getResult()));
+            if (elapsed >= slowQueryMillis) {
+                stats.slow.increment();
+                log.warn("[!] Slow query {} ms (batch:{}, params:{}): {}", elapsed,
+                        execInfo.getBatchSize(), queryInfo.getParametersList().size(), fingerprint);
+            }
+            if (execInfo.getResult() instanceof ResultSet) {
+                reading.set(stats);
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)) {
+
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        if ("next".equals(method) && Boolean.TRUE.equals(executionContext.getResult())) {
+            Stats stats = reading.get();
+            if (stats != null) {
+                stats.rows.increment();
+            }
+        } else if ("close".equals(method)) {
+            reading.remove();
+        }
+    }
+
+    /**
+     * @return отпечатки по убыванию суммарного времени
+     */
+    public List<QueryStatistics> getStatistics() {
+        return statistics.entrySet().stream()
+                .map(entry -> entry.getValue().toStatistics(entry.getKey()))
+                .sorted(Comparator.comparingLong(QueryStatistics::getTotalMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    private String getFingerprint(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint != null) {
+
+            return fingerprint;
+        }
+        fingerprint = QueryFingerprint.of(sql);
+        if (fingerprints.size() < maxFingerprints * 4) {
+            fingerprints.put(sql, fingerprint);
+        }
+
+        return fingerprint;
+    }
+
+    private Stats getStats(String fingerprint) {
+        Stats stats = statistics.get(fingerprint);
+        if (stats != null) {
+
+            return stats;
+        }
+
+        return statistics.computeIfAbsent(
+                statistics.size() < maxFingerprints ? fingerprint : OTHER, key -> new Stats());
+    }
+
+    private static long getUpdatedRows(Object result) {
+        if (result instanceof Integer) {
+
+            return (Integer) result;
+        }
+        if (result instanceof int[]) {
+            long rows = 0;
+            for (int updated : (int[]) result) {
+                rows += Math.max(updated, 0);
+            }
+
+            return rows;
+        }
+
+        return 0;
+    }
+
+    private static class Stats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalMillis = new LongAdder();
+        final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+        final LongAdder slow = new LongAdder();
+
+        void record(long elapsed, long updatedRows) {
+            count.increment();
+            totalMillis.add(elapsed);
+            maxMillis.accumulate(elapsed);
+            rows.add(updatedRows);
+        }
+
+        QueryStatistics toStatistics(String fingerprint) {
+            long executions = count.sum();
+            long total = totalMillis.sum();
+
+            return new QueryStatistics(fingerprint, executions, total, maxMillis.get(),
+                    executions == 0 ? 0 : (double) total / executions, rows.sum(), slow.sum());
+        }
+    }
+}
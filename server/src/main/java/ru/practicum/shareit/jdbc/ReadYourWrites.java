@@ -0,0 +1,114 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+/**
+ * Чтение своих записей при маршрутизации на реплики.
+ * <p>
+ * После изменяющего запроса пользователя (всё, кроме GET, HEAD и OPTIONS) его read-only транзакции
+ * идут на основную БД, пока реплика могла не получить запись: {@code shareit.datasource.replica.read-your-writes-ms},
+ * но не меньше текущего отставания реплики. Пользователь - из заголовка {@code X-Sharer-User-Id};
+ * запросы без заголовка и фоновые задачи не закрепляются.
+ */
+public class ReadYourWrites extends OncePerRequestFilter {
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(long windowMillis) {
+        this(windowMillis, System::currentTimeMillis);
+    }
+
+    ReadYourWrites(long windowMillis, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isWrite(request.getMethod())) {
+                Long userId = getUserId(request);
+                if (userId != null) {
+                    recordWrite(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Запись фиксируется после ответа, то есть после фиксации транзакции.
+     */
+    public void recordWrite(long userId) {
+        lastWrites.put(userId, clock.getAsLong());
+    }
+
+    /**
+     * @param lagMillis текущее отставание реплики
+     * @return пользователь текущего запроса может не увидеть на реплике свою запись
+     */
+    public boolean isPinned(long lagMillis) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+
+            return false;
+        }
+        Long userId = getUserId(((ServletRequestAttributes) attributes).getRequest());
+
+        return userId != null && isPinned(userId, lagMillis);
+    }
+
+    boolean isPinned(long userId, long lagMillis) {
+        Long lastWrite = lastWrites.get(userId);
+
+        return lastWrite != null && clock.getAsLong() - lastWrite <= Math.max(windowMillis, lagMillis);
+    }
+
+    /**
+     * Удаляет записи старше {@code maxLagMillis}: при таком отставании реплика не используется.
+     */
+    public void evict(long maxLagMillis) {
+        long oldest = clock.getAsLong() - Math.max(windowMillis, maxLagMillis);
+        lastWrites.values().removeIf(lastWrite -> lastWrite < oldest);
+    }
+
+    int size() {
+        return lastWrites.size();
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static Long getUserId(HttpServletRequest request) {
+        String header = request.getHeader(HEADER_USER_ID);
+        if (header == null) {
+
+            return null;
+        }
+        try {
+
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+
+            return null;
+        }
+    }
+}
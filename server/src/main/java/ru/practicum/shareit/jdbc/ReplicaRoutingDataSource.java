@@ -0,0 +1,247 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Основная БД и реплики для чтения за одним {@code DataSource}.
+ * <p>
+ * Read-only транзакции ({@code @Transactional(readOnly = true)}) идут на реплики по кругу, остальное -
+ * на основную БД. Признак read-only известен только после начала транзакции, поэтому источник используется
+ * через {@link LazyConnectionDataSourceProxy}: соединение берётся при первом запросе транзакции.
+ * Read-only транзакция остаётся на основной БД, если пользователь недавно писал сам ({@link ReadYourWrites})
+ * или нет реплики, отстающей не больше {@code max-lag-ms}.
+ * Реплика, не выдавшая соединение, исключается до следующей проверки.
+ * <p>
+ * Отставание проверяется каждые {@code check-ms}: для PostgreSQL - по времени последней применённой транзакции
+ * (ноль, если всё полученное применено), для остальных БД только доступность.
+ * <p>
+ * Метрики: {@code shareit.datasource.routed} (транзакции по {@code target} и {@code reason}),
+ * {@code shareit.datasource.replica.lag} и {@code shareit.datasource.replica.up} по {@code replica}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    public static final String POSTGRESQL_LAG_QUERY = "select coalesce(case"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end, 0)::bigint";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter pinned;
+    private final Counter unavailable;
+    private final ScheduledExecutorService checker;
+
+    /**
+     * @param checkMillis период проверки реплик, {@code 0} - только через {@link #checkReplicas()}
+     */
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<Replica> replicas,
+                                    ReadYourWrites readYourWrites,
+                                    MeterRegistry meterRegistry,
+                                    long maxLagMillis,
+                                    long checkMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLagMillis;
+        this.writes = routed(meterRegistry, "primary", "write");
+        this.reads = routed(meterRegistry, "replica", "read");
+        this.pinned = routed(meterRegistry, "primary", "read-your-writes");
+        this.unavailable = routed(meterRegistry, "primary", "replica-unavailable");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("shareit.datasource.replica.lag", replica, Replica::getLagMillis)
+                    .description("Replica lag behind primary, ms")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.up", replica, r -> r.isUp() ? 1 : 0)
+                    .description("Replica is reachable")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+
+        if (checkMillis > 0) {
+            checker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "replica-check");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkMillis, TimeUnit.MILLISECONDS);
+        } else {
+            checker = null;
+        }
+    }
+
+    /**
+     * Обновляет доступность и отставание реплик, удаляет устаревшие отметки записей.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.check();
+        }
+        readYourWrites.evict(maxLagMillis);
+    }
+
+    /**
+     * @return пулы основной БД и реплик
+     */
+    public List<DataSource> getDataSources() {
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(primary);
+        for (Replica replica : replicas) {
+            dataSources.add(replica.getDataSource());
+        }
+
+        return dataSources;
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            close(replica.getDataSource());
+        }
+        close(primary);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                writes.increment();
+            }
+
+            return primary.getConnection();
+        }
+        Replica replica;
+        while ((replica = nextReplica()) != null) {
+            if (readYourWrites.isPinned(replica.getLagMillis())) {
+                pinned.increment();
+
+                return primary.getConnection();
+            }
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                reads.increment();
+
+                return connection;
+            } catch (SQLException e) {
+                replica.down(e);
+            }
+        }
+        unavailable.increment();
+
+        return primary.getConnection();
+    }
+
+    private Replica nextReplica() {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isUp() && replica.getLagMillis() <= maxLagMillis) {
+
+                return replica;
+            }
+        }
+
+        return null;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("shareit.datasource.routed")
+                .description("Transactions routed to primary or replicas")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof Closeable) {
+            try {
+                ((Closeable) dataSource).close();
+            } catch (Exception e) {
+                log.warn("[!] Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routing data source uses configured credentials");
+    }
+
+    /**
+     * Реплика для чтения.
+     */
+    @Getter
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final String lagQuery;
+        private volatile boolean up = true;
+        private volatile long lagMillis;
+
+        /**
+         * @param lagQuery запрос отставания в мс, {@code null} - проверяется только доступность
+         */
+        public Replica(String name, DataSource dataSource, String lagQuery) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery;
+        }
+
+        void check() {
+            try (Connection connection = dataSource.getConnection()) {
+                long lag = 0;
+                if (lagQuery != null) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                        lag = resultSet.next() ? resultSet.getLong(1) : 0;
+                    }
+                } else if (!connection.isValid(1)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                lagMillis = lag;
+                if (!up) {
+                    log.info("[i] Replica {} is up, lag {} ms", name, lag);
+                }
+                up = true;
+            } catch (SQLException e) {
+                down(e);
+            }
+        }
+
+        void down(SQLException e) {
+            if (up) {
+                log.warn("[!] Replica {} is down, reading from primary: {}", name, e.getMessage());
+            }
+            up = false;
+        }
+    }
+}
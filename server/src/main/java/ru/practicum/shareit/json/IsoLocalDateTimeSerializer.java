@@ -0,0 +1,106 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+/**
+ * {@link LocalDateTime} строкой ISO-8601 без {@code DateTimeFormatter}: цифры пишутся прямо в буфер.
+ * <p>
+ * Вывод совпадает с {@link LocalDateTimeSerializer} по умолчанию ({@code 2024-01-02T03:04:05.6}, дробная часть
+ * без хвостовых нулей). Поля с {@code @JsonFormat}, режим {@code WRITE_DATES_AS_TIMESTAMPS} и годы вне 0..9999
+ * обрабатываются стандартным сериализатором.
+ */
+public class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+
+    private static final int MAX_LENGTH = 29;
+
+    private IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale())) {
+
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+
+        return this;
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(value.format(ISO_LOCAL_DATE_TIME));
+
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        generator.writeString(buffer, 0, format(value, buffer));
+    }
+
+    /**
+     * @param value  дата, год 0..9999
+     * @param buffer буфер не короче 29 символов
+     * @return длина записанной строки
+     */
+    static int format(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        write2(buffer, 0, year / 100);
+        write2(buffer, 2, year % 100);
+        buffer[4] = '-';
+        write2(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        write2(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        write2(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        write2(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        write2(buffer, 17, value.getSecond());
+
+        int nano = value.getNano();
+        if (nano == 0) {
+
+            return 19;
+        }
+        buffer[19] = '.';
+        for (int i = MAX_LENGTH - 1; i >= 20; i--) {
+            buffer[i] = (char) ('0' + nano % 10);
+            nano /= 10;
+        }
+        int length = MAX_LENGTH;
+        while (buffer[length - 1] == '0') {
+            length--;
+        }
+
+        return length;
+    }
+
+    private static void write2(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Быстрая сериализация ответов (по умолчанию включена, {@code shareit.json.fast=false} - стандартный Jackson).
+ * <p>
+ * Blackbird - доступ к полям DTO через сгенерированные лямбды вместо рефлексии,
+ * {@link IsoLocalDateTimeSerializer} - даты без {@code DateTimeFormatter},
+ * {@link PrebuiltWriterHttpMessageConverter} - готовый writer на тип ответа.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.json.fast", havingValue = "true", matchIfMissing = true)
+public class JsonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fastJsonCustomizer() {
+        // after the builder's own modules: later modules take precedence over JavaTimeModule
+        return builder -> builder.postConfigurer(JsonConfig::configure);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new PrebuiltWriterHttpMessageConverter(objectMapper);
+    }
+
+    /**
+     * @param objectMapper ObjectMapper, уже настроенный Spring Boot
+     * @return тот же ObjectMapper с модулями быстрой сериализации
+     */
+    public static ObjectMapper configure(ObjectMapper objectMapper) {
+        return objectMapper
+                .registerModule(new BlackbirdModule())
+                .registerModule(new SimpleModule("shareit-fast-json")
+                        .addSerializer(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE));
+    }
+}
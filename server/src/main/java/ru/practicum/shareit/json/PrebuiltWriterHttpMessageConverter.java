@@ -0,0 +1,69 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON-конвертер с готовым {@link ObjectWriter} на каждый тип ответа.
+ * <p>
+ * Стандартный конвертер создаёт writer на каждый ответ и для корневого типа каждый раз ищет сериализатор.
+ * Здесь writer для типа ответа ({@code ItemDto}, {@code List<BookingDto>}) создаётся один раз,
+ * корневой сериализатор в нём уже найден. Ответы с {@link MappingJacksonValue} (view, фильтры)
+ * и в кодировке не UTF-8 идут по стандартному пути.
+ */
+public class PrebuiltWriterHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public PrebuiltWriterHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (object instanceof MappingJacksonValue || !isUtf8(contentType)) {
+            super.writeInternal(object, type, outputMessage);
+
+            return;
+        }
+
+        // as in the default converter, only assignable container types are written as declared
+        Type key = type != null && TypeUtils.isAssignable(type, object.getClass())
+                && getJavaType(type, null).isContainerType() ? type : object.getClass();
+        ObjectWriter writer = writers.computeIfAbsent(key, k -> getObjectMapper().writerFor(getJavaType(k, null)));
+        OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+        try (JsonGenerator generator = getObjectMapper().getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            writer.writeValue(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageConversionException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static boolean isUtf8(MediaType contentType) {
+        return contentType == null || contentType.getCharset() == null
+                || StandardCharsets.UTF_8.equals(contentType.getCharset());
+    }
+}
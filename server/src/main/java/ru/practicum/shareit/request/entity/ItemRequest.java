@@ -14,11 +14,14 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
+
 /**
  * A class of user requests for items
  * <p>
@@ -36,7 +39,9 @@ import java.util.List;
 @Table(name = "requests", schema = "public")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", schema = "public",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String description;
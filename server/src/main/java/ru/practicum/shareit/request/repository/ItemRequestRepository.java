@@ -4,7 +4,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     @Query("select i from ItemRequest i where i.requester.id = ?1")
@@ -12,4 +14,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @Query("select i from ItemRequest i where i.requester.id <> ?1")
     List<ItemRequest> findByRequesterIdNot(Long requesterId);//, Pageable pageable);
+
+    @Query("select i.id from ItemRequest i where i.id in ?1")
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
\ No newline at end of file
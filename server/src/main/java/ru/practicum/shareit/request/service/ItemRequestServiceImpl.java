@@ -1,8 +1,11 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
 import ru.practicum.shareit.item.entity.Item;
@@ -27,12 +30,15 @@ import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
 
     @Override
+    @Transactional
     public ItemRequestDto create(Long requesterId, ItemRequestSimpleDto dto, LocalDateTime now) {
         User requester = userRepository.findById(requesterId)
                 .orElseThrow(() -> new NotFoundException(
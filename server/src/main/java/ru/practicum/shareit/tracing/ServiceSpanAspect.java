@@ -0,0 +1,40 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.MetricsConfig;
+
+/**
+ * Спан на каждый вызов сервиса, помеченного {@code @Timed}: {@code ItemServiceImpl.getAll} и т.п.,
+ * с тегом {@code booking.state}. SQL-запросы попадают в трассу дочерними спанами (datasource-proxy).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceSpanAspect {
+    private final Tracer tracer;
+
+    @Around("@within(io.micrometer.core.annotation.Timed)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Signature signature = joinPoint.getSignature();
+        Span span = tracer.nextSpan()
+                .name(signature.getDeclaringType().getSimpleName() + "." + signature.getName())
+                .tag("booking.state", MetricsConfig.getState(joinPoint.getArgs()))
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.api.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.api.dto.UserDto;
 import ru.practicum.shareit.user.api.dto.UserMapper;
@@ -22,10 +25,13 @@ import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional
     public UserDto create(UserSimpleDto userDto) {
         log.debug("[d] Create user {}", userDto);
         User user = UserMapper.INSTANTS.toEntity(userDto);
@@ -72,6 +78,7 @@ public class UserServiceImpl implements UserService {
      * @return UserDTO for Controller
      */
     @Override
+    @Transactional
     public UserDto update(UserDto userDto) {
         Long userId = userDto.getId();
         log.debug("[i] update User:{} by ID:{}", userDto, userId);
@@ -97,6 +104,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         log.debug("[i] delete User by ID:{}", id);
         isExist(id);
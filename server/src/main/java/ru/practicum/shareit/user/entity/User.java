@@ -11,8 +11,11 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import static ru.practicum.shareit.constants.Constants.ID_ALLOCATION_SIZE;
+
 /**
  * Class USER
  * <p>
@@ -30,7 +33,9 @@ import javax.persistence.Table;
 @Table(name = "users", schema = "public")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", schema = "public",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @Column(unique = true)
     private String email;
@@ -0,0 +1,29 @@
+-- public.bookings definition (any database, used by tests on H2)
+
+--create type booking_status as enum ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED');
+
+create table if not exists public.bookings (
+  id bigint default nextval('public.bookings_seq') not null primary key,
+   start_time timestamp without time zone not null,
+   break_time timestamp without time zone not null,
+   item_id bigint references public.items (id),
+   booker_id bigint references public.users (id),
+   owner_id bigint,
+   status varchar(10) default 'WAITING'
+);
+
+-- owner of the booked item, filled on insert; existing rows are filled here, BookingOwnerBackfillScheduler
+-- covers rows inserted by instances of the previous version during a rolling update
+alter table public.bookings add column if not exists owner_id bigint;
+
+update public.bookings set owner_id = (select i.owner_id from public.items i where i.id = bookings.item_id)
+  where owner_id is null;
+
+-- booker, item and owner booking lists (start_time desc, id desc) without sorting
+create index if not exists bookings_booker_start_id_idx on public.bookings (booker_id, start_time desc, id desc);
+create index if not exists bookings_item_start_id_idx on public.bookings (item_id, start_time desc, id desc);
+create index if not exists bookings_owner_start_id_idx on public.bookings (owner_id, start_time desc, id desc);
+
+-- bookings started or ended since booking_counters_watermark.counted_to (BookingCounterScheduler)
+create index if not exists bookings_start_idx on public.bookings (start_time);
+create index if not exists bookings_break_idx on public.bookings (break_time);
@@ -0,0 +1,80 @@
+-- public.bookings definition (PostgreSQL, range partitioned by month of start_time)
+-- monthly partitions are created ahead of time by BookingPartitionMaintainer,
+-- rows outside of them land in public.bookings_default.
+-- A database created before partitioning keeps its plain table: "create table if not exists" skips it
+
+--create type booking_status as enum ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED');
+
+create table if not exists public.bookings (
+  id bigint default nextval('public.bookings_seq') not null,
+   start_time timestamp without time zone not null,
+   break_time timestamp without time zone not null,
+   item_id bigint references public.items (id),
+   booker_id bigint references public.users (id),
+   owner_id bigint,
+   status varchar(10) default 'WAITING',
+   primary key (id, start_time)
+) partition by range (start_time);
+
+-- default partition only for a partitioned bookings (relkind 'p'), a plain table cannot have one;
+-- the body is single-quoted because the script is split on ';' outside of quotes
+do '
+begin
+  if exists (select 1 from pg_class c join pg_namespace n on n.oid = c.relnamespace
+             where n.nspname = ''public'' and c.relname = ''bookings'' and c.relkind = ''p'') then
+    create table if not exists public.bookings_default partition of public.bookings default;
+  end if;
+end';
+
+-- owner of the booked item, filled on insert; existing rows are filled here, BookingOwnerBackfillScheduler
+-- covers rows inserted by instances of the previous version during a rolling update
+alter table public.bookings add column if not exists owner_id bigint;
+
+update public.bookings set owner_id = (select i.owner_id from public.items i where i.id = bookings.item_id)
+  where owner_id is null;
+
+-- booker, item and owner booking lists (start_time desc, id desc) without sorting
+create index if not exists bookings_booker_start_id_idx on public.bookings (booker_id, start_time desc, id desc);
+create index if not exists bookings_item_start_id_idx on public.bookings (item_id, start_time desc, id desc);
+create index if not exists bookings_owner_start_id_idx on public.bookings (owner_id, start_time desc, id desc);
+
+-- bookings started or ended since booking_counters_watermark.counted_to (BookingCounterScheduler)
+create index if not exists bookings_start_idx on public.bookings (start_time);
+create index if not exists bookings_break_idx on public.bookings (break_time);
+
+-- index-only probe for comment eligibility
+
+create index if not exists booking_eligibility_cover_idx on public.booking_eligibility (item_id, booker_id) include (eligible_from);
+
+-- migration of databases created with identity columns: sequences continue after existing ids,
+-- setval runs only while the column is still an identity, i.e. once
+
+select setval('public.users_seq', (select coalesce(max(id), 0) + 1 from public.users), false)
+  from information_schema.columns
+  where table_schema = 'public' and table_name = 'users' and column_name = 'id' and is_identity = 'YES';
+alter table public.users alter column id drop identity if exists;
+alter table public.users alter column id set default nextval('public.users_seq');
+
+select setval('public.requests_seq', (select coalesce(max(id), 0) + 1 from public.requests), false)
+  from information_schema.columns
+  where table_schema = 'public' and table_name = 'requests' and column_name = 'id' and is_identity = 'YES';
+alter table public.requests alter column id drop identity if exists;
+alter table public.requests alter column id set default nextval('public.requests_seq');
+
+select setval('public.items_seq', (select coalesce(max(id), 0) + 1 from public.items), false)
+  from information_schema.columns
+  where table_schema = 'public' and table_name = 'items' and column_name = 'id' and is_identity = 'YES';
+alter table public.items alter column id drop identity if exists;
+alter table public.items alter column id set default nextval('public.items_seq');
+
+select setval('public.comments_seq', (select coalesce(max(id), 0) + 1 from public.comments), false)
+  from information_schema.columns
+  where table_schema = 'public' and table_name = 'comments' and column_name = 'id' and is_identity = 'YES';
+alter table public.comments alter column id drop identity if exists;
+alter table public.comments alter column id set default nextval('public.comments_seq');
+
+select setval('public.bookings_seq', (select coalesce(max(id), 0) + 1 from public.bookings), false)
+  from information_schema.columns
+  where table_schema = 'public' and table_name = 'bookings' and column_name = 'id' and is_identity = 'YES';
+alter table public.bookings alter column id drop identity if exists;
+alter table public.bookings alter column id set default nextval('public.bookings_seq');
@@ -1,15 +1,27 @@
 -- drop all tables
 
 --drop table if exists public.bookings cascade;
+--drop table if exists public.booking_eligibility cascade;
+--drop table if exists public.booking_counters cascade;
+--drop table if exists public.booking_counters_watermark cascade;
+--drop table if exists public.job_marks cascade;
 --drop table if exists public.comments cascade;
 --drop table if exists public.items cascade;
 --drop table if exists public.requests cascade;
 --drop table if exists public.users cascade;
 
+-- id sequences (pooled-lo: every nextval reserves 50 ids for Hibernate, see Constants.ID_ALLOCATION_SIZE)
+
+create sequence if not exists public.users_seq start with 1 increment by 50;
+create sequence if not exists public.requests_seq start with 1 increment by 50;
+create sequence if not exists public.items_seq start with 1 increment by 50;
+create sequence if not exists public.comments_seq start with 1 increment by 50;
+create sequence if not exists public.bookings_seq start with 1 increment by 50;
+
 -- public.users definition
 
 create table if not exists public.users (
-  id bigint generated by default as identity not null primary key,
+  id bigint default nextval('public.users_seq') not null primary key,
    email varchar(255) not null unique,
    name varchar(255) not null
 );
@@ -17,7 +29,7 @@ create table if not exists public.users (
 -- public.requests definition
 
 create table if not exists public.requests (
-  id bigint generated by default as identity not null primary key,
+  id bigint default nextval('public.requests_seq') not null primary key,
    created timestamp without time zone not null,
    description varchar(2000),
    requester_id bigint references public.users (id) on DELETE cascade
@@ -26,7 +38,7 @@ create table if not exists public.requests (
 -- public.items definition
 
 create table if not exists public.items (
-  id bigint generated by default as identity not null primary key,
+  id bigint default nextval('public.items_seq') not null primary key,
    name varchar(255),
    description varchar(512),
    available boolean not null,
@@ -34,25 +46,56 @@ create table if not exists public.items (
    item_request_id bigint references public.requests (id)
 );
 
+create index if not exists items_owner_idx on public.items (owner_id);
+
 -- public.comments definition
 
 create table if not exists public.comments (
-  id bigint generated by default as identity not null primary key,
+  id bigint default nextval('public.comments_seq') not null primary key,
    text varchar(2048),
    item_id bigint references public.items (id) on DELETE cascade,
    author_id bigint references public.users (id) on DELETE cascade,
    created timestamp without time zone not null
 );
 
+create index if not exists comments_item_created_idx on public.comments (item_id, created desc, id desc);
+
 -- public.bookings definition
+-- platform specific: schema-all.sql (plain table), schema-postgresql.sql (partitioned by start_time)
+
+-- public.booking_eligibility definition
+-- (item, booker) pairs allowed to comment: earliest end of an APPROVED booking
+
+create table if not exists public.booking_eligibility (
+  item_id bigint not null references public.items (id) on DELETE cascade,
+   booker_id bigint not null references public.users (id) on DELETE cascade,
+   eligible_from timestamp without time zone not null,
+   primary key (item_id, booker_id)
+);
 
---create type booking_status as enum ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED');
+-- public.booking_counters definition
+-- bookings per (owner, item) by status (WAITING, APPROVED, REJECTED, CANCELED)
+-- and by time (FUTURE, CURRENT, PAST relative to booking_counters_watermark.counted_to)
 
-create table if not exists public.bookings (
-  id bigint generated by default as identity not null primary key,
-   start_time timestamp without time zone not null,
-   break_time timestamp without time zone not null,
-   item_id bigint references public.items (id),
-   booker_id bigint references public.users (id),
-   status varchar(10) default 'WAITING'
-);
\ No newline at end of file
+create table if not exists public.booking_counters (
+  owner_id bigint not null,
+   item_id bigint not null,
+   state varchar(10) not null,
+   bookings bigint not null,
+   primary key (owner_id, item_id, state)
+);
+
+-- single row: FUTURE / CURRENT / PAST counters are exact as of counted_to, no row - counters are not built
+
+create table if not exists public.booking_counters_watermark (
+  id int not null primary key,
+   counted_to timestamp without time zone not null
+);
+
+-- public.job_marks definition
+-- startup jobs over whole tables already done for this database (by any server instance)
+
+create table if not exists public.job_marks (
+  name varchar(64) not null primary key,
+   done_at timestamp without time zone not null
+);
@@ -12,38 +12,52 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.api.service.BookingService;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.exception.StateException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.ShareItServer.RANDOM;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.constants.Constants.APPROVE_BOOKINGS;
 import static ru.practicum.shareit.constants.Constants.CREATE_BOOKING;
+import static ru.practicum.shareit.constants.Constants.EXPORT_BOOKINGS;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_OWNER;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_USER;
 import static ru.practicum.shareit.constants.Constants.GET_BOOKING;
+import static ru.practicum.shareit.constants.Constants.GET_OWNER_BOOKINGS_SUMMARY;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKING;
 
@@ -204,6 +218,27 @@ class BookingControllerTest {
                 .update(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    @DisplayName("APPROVE_BOOKINGS:" + APPROVE_BOOKINGS)
+    void approveAll() throws Exception {
+        List<BookingApprovalDto> decisions = List.of(new BookingApprovalDto(1L, true));
+        when(bookingService.approveAll(anyLong(), anyList()))
+                .thenReturn(List.of(new BookingApprovalResultDto(1L, APPROVED, null)));
+
+        mvc.perform(patch(APPROVE_BOOKINGS)
+                        .header(HEADER_USER_ID, bookerId)
+                        .content(mapper.writeValueAsString(decisions))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].status").value(APPROVED.name()));
+
+        verify(bookingService, times(1))
+                .approveAll(anyLong(), anyList());
+    }
+
     @Test
     @DisplayName("GET_BOOKING:" + GET_BOOKING)
     void getBookingById() throws Exception {
@@ -271,4 +306,56 @@ class BookingControllerTest {
                         any(LocalDateTime.class),
                         any(Pageable.class));
     }
+
+    @Test
+    @DisplayName("GET_OWNER_BOOKINGS_SUMMARY:" + GET_OWNER_BOOKINGS_SUMMARY)
+    void getOwnerSummary() throws Exception {
+        BookingSummaryDto summary = BookingSummaryDto.builder()
+                .states(Map.of(BookingState.ALL, 3L, BookingState.FUTURE, 3L))
+                .upcomingWeek(2L)
+                .topItems(List.of(new BookingSummaryDto.ItemDto(1L, "item", 3L)))
+                .build();
+        when(bookingService.getOwnerSummary(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(summary);
+
+        mvc.perform(get(GET_OWNER_BOOKINGS_SUMMARY)
+                        .header(HEADER_USER_ID, bookerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.states.ALL").value(3))
+                .andExpect(jsonPath("$.upcomingWeek").value(2))
+                .andExpect(jsonPath("$.topItems[0].name").value("item"));
+
+        verify(bookingService, times(1))
+                .getOwnerSummary(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("EXPORT_BOOKINGS:" + EXPORT_BOOKINGS + " - NDJSON, line per booking")
+    void exportAllByUser() throws Exception {
+        when(bookingService.exportAllByUser(bookerId))
+                .thenReturn(out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get(EXPORT_BOOKINGS)
+                        .header(HEADER_USER_ID, bookerId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("EXPORT_BOOKINGS:" + EXPORT_BOOKINGS + " when not exists User - return 404")
+    void exportAllByUser_whenUserNotFound_return404() throws Exception {
+        when(bookingService.exportAllByUser(bookerId))
+                .thenThrow(new NotFoundException("User not found"));
+
+        mvc.perform(get(EXPORT_BOOKINGS)
+                        .header(HEADER_USER_ID, bookerId))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
 }
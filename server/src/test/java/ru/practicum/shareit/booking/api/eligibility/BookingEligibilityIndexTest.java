@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.api.eligibility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEligibilityIndexTest {
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingEligibilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingEligibilityIndex(bookingRepository);
+    }
+
+    @Test
+    void isEligible_whenApprovedBookingEnded_thenNoDatabaseProbe() {
+        index.afterStatusChanged(new BookingStatusChangedEvent(
+                1L, 10L, 30L, 20L, WAITING, APPROVED, now.minusDays(3), now.minusDays(1)));
+
+        assertTrue(index.isEligible(10L, 20L, now));
+        verify(bookingRepository, never()).findEligibleFrom(anyLong(), anyLong());
+    }
+
+    @Test
+    void isEligible_whenBookingNotEndedYet_thenCheckTable() {
+        index.afterStatusChanged(new BookingStatusChangedEvent(
+                1L, 10L, 30L, 20L, WAITING, APPROVED, now.minusDays(1), now.plusDays(1)));
+        when(bookingRepository.findEligibleFrom(10L, 20L)).thenReturn(Optional.of(now.plusDays(1)));
+
+        assertFalse(index.isEligible(10L, 20L, now));
+        assertTrue(index.isEligible(10L, 20L, now.plusDays(1)));
+    }
+
+    @Test
+    void isEligible_whenMissInMemory_thenRememberTableRow() {
+        when(bookingRepository.findEligibleFrom(10L, 20L)).thenReturn(Optional.of(now.minusDays(1)));
+
+        assertTrue(index.isEligible(10L, 20L, now));
+        assertTrue(index.isEligible(10L, 20L, now));
+
+        verify(bookingRepository).findEligibleFrom(10L, 20L);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void onStatusChanged_whenRejected_thenIgnore() {
+        index.onStatusChanged(new BookingStatusChangedEvent(
+                1L, 10L, 30L, 20L, WAITING, REJECTED, now.minusDays(3), now.minusDays(1)));
+        index.afterStatusChanged(new BookingStatusChangedEvent(
+                1L, 10L, 30L, 20L, WAITING, REJECTED, now.minusDays(3), now.minusDays(1)));
+
+        verify(bookingRepository, never()).markEligible(anyLong(), anyLong(), any());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void load_whenBackfillDone_thenLoadTableOnly() {
+        when(bookingRepository.backfillEligibility()).thenReturn(-1);
+        doAnswer(invocation -> {
+            invocation.<BookingRepository.EligibilityConsumer>getArgument(0).accept(10L, 20L, now.minusDays(1));
+            return null;
+        }).when(bookingRepository).forEachEligibility(any());
+
+        index.load();
+
+        assertEquals(1, index.size());
+        assertTrue(index.isEligible(10L, 20L, now));
+    }
+
+    @Test
+    void longPairLongMap_whenManyPairs_thenKeepMinimum() {
+        LongPairLongMap map = new LongPairLongMap(4);
+        for (long item = 1; item <= 1000; item++) {
+            map.putMin(item, item + 1, item);
+            map.putMin(item, item + 1, item + 5);
+            map.putMin(item, item + 2, item - 1);
+        }
+
+        assertEquals(2000, map.size());
+        assertEquals(500, map.get(500, 501, -1));
+        assertEquals(499, map.get(500, 502, -1));
+        assertEquals(-1, map.get(500, 503, -1));
+    }
+}
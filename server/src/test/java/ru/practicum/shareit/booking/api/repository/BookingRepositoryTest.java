@@ -1,31 +1,64 @@
 package ru.practicum.shareit.booking.api.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.config.SchemaInitConfig;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.booker;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.owner;
+import static ru.practicum.shareit.booking.api.repository.BookingSpecifications.status;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.ALL;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.CURRENT;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.FUTURE;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.PAST;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.CANCELED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
 import static ru.practicum.shareit.constants.Constants.RANDOM;
 
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SchemaInitConfig.class)
 class BookingRepositoryTest {
     private final Pageable pageable = Pageable.ofSize(10);
     private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
@@ -37,17 +70,21 @@ class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
 
     private User getNewUser() {
         User owner = RANDOM.nextObject(User.class);
-        return userRepository.save(owner);
+        return userRepository.saveAndFlush(owner);
     }
 
     private Item getNewItem(User owner) {
         Item item = RANDOM.nextObject(Item.class);
         item.setOwner(owner);
         item.setRequest(null);
-        return itemRepository.save(item);
+        return itemRepository.saveAndFlush(item);
     }
 
     private void getNewBookingInPast(Item item, User booker) {
@@ -57,7 +94,7 @@ class BookingRepositoryTest {
         booking.setStart(now.minusDays(7));
         booking.setEnd(now.minusDays(4));
         booking.setStatus(APPROVED);
-        bookingRepository.save(booking);
+        bookingRepository.saveAndFlush(booking);
     }
 
     private void getNewBookingNearPresent(Item item, User booker) {
@@ -67,7 +104,7 @@ class BookingRepositoryTest {
         booking.setStart(now.minusDays(1));
         booking.setEnd(now.plusDays(1));
         booking.setStatus(APPROVED);
-        bookingRepository.save(booking);
+        bookingRepository.saveAndFlush(booking);
     }
 
     private Booking getNewBookingInFuture(Item item, User booker, BookingStatus status) {
@@ -77,7 +114,7 @@ class BookingRepositoryTest {
         booking.setStart(now.plusDays(4));
         booking.setEnd(now.plusDays(7));
         booking.setStatus(status);
-        return bookingRepository.save(booking);
+        return bookingRepository.saveAndFlush(booking);
     }
 
     private void prepareBooking(Item item1, Item item2) {
@@ -146,26 +183,39 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("ALL OWNER")
-    void findAllByItem_Owner_IdOrderByStartDesc() {
+    void findAllMatching_OwnerAll() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+
+        prepareBooking(item1, item2);
+
+        assertEquals(3, bookingRepository
+                .findAllMatching(owner(owner.getId()).and(inState(ALL, now)), pageable)
+                .size());
     }
 
     @Test
     @DisplayName("ALL BOOKER")
-    void findAllByBooker_IdOrderByStartDesc() {
+    void findAllMatching_BookerAll() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
 
-        prepareBooking(item1, item2);
+        User booker = getNewUser();
+        getNewBookingInPast(item1, booker);
+        getNewBookingNearPresent(item2, booker);
+        getNewBookingInFuture(item2, booker, WAITING);
+        getNewBookingInFuture(item1, getNewUser(), WAITING);
 
         assertEquals(3, bookingRepository
-                .findAllByItem_Owner_IdOrderByStartDesc(owner.getId(), pageable)
+                .findAllMatching(booker(booker.getId()).and(inState(ALL, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("<APPROVED>, WAITING OWNER")
-    void findAllByItem_Owner_IdAndStatusOrderByStartDesc() {
+    void findAllMatching_OwnerApproved() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -176,14 +226,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, APPROVED);
 
         assertEquals(3, bookingRepository
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                        owner.getId(), APPROVED, pageable)
+                .findAllMatching(owner(owner.getId()).and(status(APPROVED)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("APPROVED, <WAITING> OWNER")
-    void findAllByItem_Owner_IdAndStatusOrderByStartDesc_2() {
+    void findAllMatching_OwnerWaiting() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -194,13 +243,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(owner.getId(), WAITING, pageable)
+                .findAllMatching(owner(owner.getId()).and(inState(BookingState.WAITING, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("<APPROVED>, WAITING BOOKER")
-    void findAllByBooker_IdAndStatusOrderByStartDesc() {
+    void findAllMatching_BookerApproved() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -211,13 +260,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, APPROVED);
 
         assertEquals(3, bookingRepository
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), APPROVED, pageable)
+                .findAllMatching(booker(booker.getId()).and(status(APPROVED)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("APPROVED, <WAITING> BOOKER")
-    void findAllByBooker_IdAndStatusOrderByStartDesc_2() {
+    void findAllMatching_BookerWaiting() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -228,13 +277,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), WAITING, pageable)
+                .findAllMatching(booker(booker.getId()).and(inState(BookingState.WAITING, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("PAST OWNER")
-    void findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc() {
+    void findAllMatching_OwnerPast() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -245,13 +294,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(owner.getId(), now, pageable)
+                .findAllMatching(owner(owner.getId()).and(inState(PAST, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("PAST BOOKER")
-    void findAllByBooker_IdAndEndBeforeOrderByStartDesc() {
+    void findAllMatching_BookerPast() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -262,13 +311,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndEndBeforeOrderByStartDesc(booker.getId(), now, pageable)
+                .findAllMatching(booker(booker.getId()).and(inState(PAST, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("FUTURE BOOKER")
-    void findAllByBooker_IdAndStartAfterOrderByStartDesc() {
+    void findAllMatching_BookerFuture() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -279,13 +328,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStartAfterOrderByStartDesc(booker.getId(), now, pageable)
+                .findAllMatching(booker(booker.getId()).and(inState(FUTURE, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("FUTURE OWNER")
-    void findAllByItem_Owner_IdAndStartAfterOrderByStartDesc() {
+    void findAllMatching_OwnerFuture() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -296,13 +345,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(owner.getId(), now, pageable)
+                .findAllMatching(owner(owner.getId()).and(inState(FUTURE, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("CURRENT BOOKER")
-    void findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc() {
+    void findAllMatching_BookerCurrent() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -313,13 +362,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(booker.getId(), now, now, pageable)
+                .findAllMatching(booker(booker.getId()).and(inState(CURRENT, now)), pageable)
                 .size());
     }
 
     @Test
     @DisplayName("CURRENT OWNER")
-    void findAllByItem_Owner_IdAndStartBeforeAndEndAfter() {
+    void findAllMatching_OwnerCurrent() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -330,14 +379,72 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-                        owner.getId(), now, now, pageable)
+                .findAllMatching(owner(owner.getId()).and(inState(CURRENT, now)), pageable)
                 .size());
     }
 
+    @Test
+    @DisplayName("CANCELED BOOKER, OWNER")
+    void findAllMatching_Canceled() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+
+        User booker = getNewUser();
+        getNewBookingInPast(item, booker);
+        getNewBookingInFuture(item, booker, WAITING);
+        Booking canceled = getNewBookingInFuture(item, booker, CANCELED);
+
+        assertEquals(List.of(canceled.getId()), getIds(bookingRepository
+                .findAllMatching(booker(booker.getId()).and(inState(BookingState.CANCELED, now)), pageable)));
+        assertEquals(List.of(canceled.getId()), getIds(bookingRepository
+                .findAllMatching(owner(owner.getId()).and(inState(BookingState.CANCELED, now)), pageable)));
+    }
+
+    @Test
+    @DisplayName("ORDER BY START DESC, ID DESC")
+    void findAllMatching_SameStart_OrderedByIdAcrossPages() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+
+        User booker = getNewUser();
+        getNewBookingInPast(item, booker);
+        Booking first = getNewBookingInFuture(item, booker, WAITING);
+        Booking second = getNewBookingInFuture(item, booker, APPROVED);
+        Booking third = getNewBookingInFuture(item, booker, REJECTED);
+
+        assertEquals(List.of(third.getId(), second.getId()), getIds(bookingRepository
+                .findAllMatching(owner(owner.getId()).and(inState(ALL, now)), PageRequest.of(0, 2))));
+        assertEquals(first.getId(), bookingRepository
+                .findAllMatching(booker(booker.getId()).and(inState(ALL, now)), PageRequest.of(1, 2))
+                .get(0).getId());
+    }
+
+    @Test
+    @DisplayName("ITEM AND BOOKER IN ONE STATEMENT")
+    void findAllMatching_OneStatementPerPage() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+        prepareBooking(item1, item2);
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingRepository
+                .findAllMatching(owner(owner.getId()).and(inState(ALL, now)), pageable)
+                .stream()
+                .map(BookingMapper.INSTANCE::toDto)
+                .collect(toList());
+
+        assertEquals(3, bookings.size());
+        assertEquals(item2.getName(), bookings.get(0).getItem().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
     @Test
     @DisplayName("UPDATE STATUS RIGHT NOW")
-    void updateStatusById() {
+    void updateWaitingStatusById() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -347,7 +454,8 @@ class BookingRepositoryTest {
         getNewBookingNearPresent(item2, booker);
         Booking next = getNewBookingInFuture(item2, booker, WAITING);
 
-        bookingRepository.updateStatusById(REJECTED, next.getId());
+        assertEquals(1, bookingRepository.updateWaitingStatusById(REJECTED, next.getId()));
+        assertEquals(0, bookingRepository.updateWaitingStatusById(APPROVED, next.getId()));
 
         Booking checking = bookingRepository.getReferenceById(next.getId());
         assertEquals(checking.getStatus(), REJECTED);
@@ -355,7 +463,7 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("CHECK BOOKING FOR CREATE COMMENT")
-    void existsCompletedBookingByTheUserOfTheItem() {
+    void backfillEligibility() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -363,10 +471,272 @@ class BookingRepositoryTest {
         User booker = getNewUser();
         getNewBookingInPast(item1, booker);
         getNewBookingNearPresent(item2, booker);
+        getNewBookingInFuture(item2, booker, WAITING);
+
+        assertEquals(2, bookingRepository.backfillEligibility());
+        // done once per database: the next start does not read bookings again
+        assertEquals(-1, bookingRepository.backfillEligibility());
+
+        assertEquals(Optional.of(now.minusDays(4)),
+                bookingRepository.findEligibleFrom(item1.getId(), booker.getId()));
+        assertEquals(Optional.of(now.plusDays(1)),
+                bookingRepository.findEligibleFrom(item2.getId(), booker.getId()));
+        assertEquals(Optional.empty(),
+                bookingRepository.findEligibleFrom(item1.getId(), owner.getId()));
+    }
+
+    @Test
+    @DisplayName("STARTUP JOB MARKS")
+    void markJobDone() {
+        assertFalse(bookingRepository.isJobDone("test-job"));
+        assertTrue(bookingRepository.markJobDone("test-job"));
+        assertFalse(bookingRepository.markJobDone("test-job"));
+        assertTrue(bookingRepository.isJobDone("test-job"));
+        assertFalse(bookingRepository.isJobDone("other-job"));
+    }
+
+    @Test
+    @DisplayName("MARK ELIGIBLE KEEPS EARLIEST END")
+    void markEligible() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+
+        bookingRepository.markEligible(item.getId(), booker.getId(), now);
+        bookingRepository.markEligible(item.getId(), booker.getId(), now.plusDays(1));
+        bookingRepository.markEligible(item.getId(), booker.getId(), now.minusDays(1));
+
+        assertEquals(Optional.of(now.minusDays(1)),
+                bookingRepository.findEligibleFrom(item.getId(), booker.getId()));
+
+        Map<Long, LocalDateTime> loaded = new HashMap<>();
+        bookingRepository.forEachEligibility((itemId, bookerId, eligibleFrom) -> loaded.put(itemId, eligibleFrom));
+        assertEquals(now.minusDays(1), loaded.get(item.getId()));
+    }
+
+    @Test
+    @DisplayName("UPDATE STATUS BATCH FOR OWNER")
+    void updateWaitingStatusByOwner() {
+        User owner = getNewUser();
+        User stranger = getNewUser();
+        Item item = getNewItem(owner);
+        Item strangerItem = getNewItem(stranger);
+
+        User booker = getNewUser();
+        Booking waiting = getNewBookingInFuture(item, booker, WAITING);
+        Booking approved = getNewBookingInFuture(item, booker, APPROVED);
+        Booking foreign = getNewBookingInFuture(strangerItem, booker, WAITING);
+
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        statuses.put(waiting.getId(), REJECTED);
+        statuses.put(approved.getId(), REJECTED);
+        statuses.put(foreign.getId(), APPROVED);
+        statuses.put(Long.MAX_VALUE, APPROVED);
+
+        Set<Long> updated = bookingRepository.updateWaitingStatusByOwner(owner.getId(), statuses);
+
+        assertEquals(Set.of(waiting.getId()), updated);
+        assertEquals(REJECTED.name(), getStatus(waiting.getId()));
+        assertEquals(APPROVED.name(), getStatus(approved.getId()));
+        assertEquals(WAITING.name(), getStatus(foreign.getId()));
+    }
+
+    @Test
+    @DisplayName("CANCEL EXPIRED WAITING")
+    void cancelExpiredWaiting() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+
+        Booking expired = getNewBookingInFuture(item, booker, WAITING);
+        Booking approved = getNewBookingInFuture(item, booker, APPROVED);
+        Booking upcoming = getNewBookingInFuture(item, booker, WAITING);
+        jdbcTemplate.update("update public.bookings set start_time = ? where id in (?, ?)",
+                now.minusHours(1), expired.getId(), approved.getId());
+
+        List<Long> canceled = bookingRepository.cancelExpiredWaiting(now, 10);
 
+        assertEquals(List.of(expired.getId()), canceled);
+        assertEquals(BookingStatus.CANCELED.name(), getStatus(expired.getId()));
+        assertEquals(APPROVED.name(), getStatus(approved.getId()));
+        assertEquals(WAITING.name(), getStatus(upcoming.getId()));
+    }
+
+    @Test
+    @DisplayName("POSTGRESQL SCHEMA: DEFAULT PARTITION GUARD")
+    void schemaPostgreSql_DefaultPartitionGuarded() throws IOException {
+        List<String> guarded = getStatements("schema-postgresql.sql").stream()
+                .filter(statement -> statement.contains("bookings_default"))
+                .collect(toList());
+
+        assertEquals(1, guarded.size());
+        assertTrue(guarded.get(0).startsWith("do '"));
+        assertTrue(guarded.get(0).contains("c.relkind = ''p''"));
+        assertTrue(guarded.get(0).endsWith("end'"));
+    }
+
+    /**
+     * Скрипт схемы, разбитый на операторы так же, как при инициализации базы.
+     */
+    private static List<String> getStatements(String resource) throws IOException {
+        String script = StreamUtils.copyToString(
+                new ClassPathResource(resource).getInputStream(), StandardCharsets.UTF_8);
+        List<String> statements = new ArrayList<>();
+        ScriptUtils.splitSqlScript(script, ScriptUtils.DEFAULT_STATEMENT_SEPARATOR, statements);
+        return statements;
+    }
+
+    @Test
+    @DisplayName("BACKFILL OWNER")
+    void backfillOwnerIds() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+        User booker = getNewUser();
+
+        getNewBookingInPast(item1, booker);
+        getNewBookingNearPresent(item2, booker);
+        Booking future = getNewBookingInFuture(item2, booker, WAITING);
+        assertEquals(owner.getId(), future.getOwnerId());
+
+        jdbcTemplate.update("update public.bookings set owner_id = null where booker_id = ?", booker.getId());
+        entityManager.clear();
+        assertEquals(List.of(), bookingRepository.findAllMatching(owner(owner.getId()), pageable));
+
+        assertEquals(2, bookingRepository.backfillOwnerIds(2));
+        assertEquals(1, bookingRepository.backfillOwnerIds(2));
+        assertEquals(0, bookingRepository.backfillOwnerIds(2));
+
+        assertEquals(3, bookingRepository.findAllMatching(owner(owner.getId()), pageable).size());
+    }
+
+    @Test
+    @DisplayName("BACKFILL OWNER: SCHEMA MIGRATION")
+    void backfillOwnerIds_BySchemaMigration() throws IOException {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+
+        getNewBookingInPast(item, booker);
+        getNewBookingInFuture(item, booker, WAITING);
+        jdbcTemplate.update("update public.bookings set owner_id = null where booker_id = ?", booker.getId());
+        entityManager.clear();
+
+        List<String> backfill = getStatements("schema-all.sql").stream()
+                .filter(statement -> statement.startsWith("update public.bookings set owner_id"))
+                .collect(toList());
+        assertEquals(1, backfill.size());
+        assertEquals(2, jdbcTemplate.update(backfill.get(0)));
+        assertEquals(0, jdbcTemplate.update(backfill.get(0)));
+
+        assertEquals(2, bookingRepository.findAllMatching(owner(owner.getId()), pageable).size());
+        assertEquals(0, bookingRepository.backfillOwnerIds(10));
+    }
+
+    @Test
+    @DisplayName("OWNER COUNTERS")
+    void counters_MaintainedIncrementally_EqualRebuilt() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+        User booker = getNewUser();
+
+        getNewBookingInPast(item1, booker);
+        getNewBookingNearPresent(item2, booker);
+        getNewBookingInFuture(item2, booker, WAITING);
+
+        assertEquals(Optional.empty(), bookingRepository.findCountedTo());
+        assertTrue(bookingRepository.buildCounters(now));
+        assertFalse(bookingRepository.buildCounters(now));
+        assertEquals(Map.of("FUTURE", 1L, "CURRENT", 1L, "PAST", 1L, "APPROVED", 2L, "WAITING", 1L),
+                getCounters(owner.getId()));
+
+        Booking soon = new Booking();
+        soon.setItem(item1);
+        soon.setBooker(booker);
+        soon.setStart(now.plusHours(1));
+        soon.setEnd(now.plusHours(2));
+        soon.setStatus(WAITING);
+        bookingRepository.saveAndFlush(soon);
+        bookingRepository.countBooking(owner.getId(), item1.getId(), null, WAITING, soon.getStart(), soon.getEnd());
+        bookingRepository.updateWaitingStatusById(APPROVED, soon.getId());
+        bookingRepository.countBooking(owner.getId(), item1.getId(), WAITING, APPROVED, soon.getStart(), soon.getEnd());
+        assertEquals(Map.of("FUTURE", 2L, "CURRENT", 1L, "PAST", 1L, "APPROVED", 3L, "WAITING", 1L),
+                getCounters(owner.getId()));
+
+        assertEquals(2, bookingRepository.advanceCounters(now.plusDays(2)));
+        assertEquals(0, bookingRepository.advanceCounters(now.plusDays(1)));
+        assertEquals(Optional.of(now.plusDays(2)), bookingRepository.findCountedTo());
+        assertEquals(1, bookingRepository.cancelExpiredWaiting(now.plusDays(5), 10).size());
+
+        Map<String, Long> maintained = getCounters(owner.getId());
+        assertEquals(Map.of("FUTURE", 1L, "PAST", 3L, "APPROVED", 3L, "CANCELED", 1L), maintained);
+        assertEquals(List.of(item1.getId(), item2.getId()), bookingRepository.findTopItemsByOwner(owner.getId(), 5)
+                .stream().map(BookingRepository.ItemCountView::getId).collect(toList()));
+        assertEquals(List.of(item1.getId()), bookingRepository.findTopItemsByOwner(owner.getId(), 1)
+                .stream().map(BookingRepository.ItemCountView::getId).collect(toList()));
+
+        jdbcTemplate.update("delete from public.booking_counters_watermark");
+        assertTrue(bookingRepository.buildCounters(now.plusDays(2)));
+        assertEquals(maintained, getCounters(owner.getId()));
+    }
+
+    @Test
+    @DisplayName("REBUILD OWNER COUNTERS")
+    void rebuildCounters_Drifted_Corrected() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+        User booker = getNewUser();
+
+        getNewBookingInPast(item1, booker);
         getNewBookingInFuture(item2, booker, WAITING);
 
-        assertTrue(bookingRepository.existsCompletedBookingByTheUserOfTheItem(
-                item1.getId(), booker.getId(), APPROVED, now));
+        assertFalse(bookingRepository.rebuildCounters());
+        assertTrue(bookingRepository.buildCounters(now));
+        Map<String, Long> built = getCounters(owner.getId());
+        assertEquals(Map.of("FUTURE", 1L, "PAST", 1L, "APPROVED", 1L, "WAITING", 1L), built);
+
+        // lost and duplicated updates
+        jdbcTemplate.update("update public.booking_counters set bookings = bookings + 5 "
+                + "where owner_id = ? and state = 'PAST'", owner.getId());
+        jdbcTemplate.update("delete from public.booking_counters where owner_id = ? and state = 'WAITING'",
+                owner.getId());
+        assertEquals(Map.of("FUTURE", 1L, "PAST", 6L, "APPROVED", 1L), getCounters(owner.getId()));
+
+        assertTrue(bookingRepository.rebuildCounters());
+        assertEquals(built, getCounters(owner.getId()));
+        assertEquals(Optional.of(now), bookingRepository.findCountedTo());
+    }
+
+    @Test
+    @DisplayName("COUNT UPCOMING FOR OWNER")
+    void countByOwnerIdAndStartGreaterThanEqualAndStartLessThanAndStatusIn() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+
+        getNewBookingNearPresent(item, booker);
+        getNewBookingInFuture(item, booker, WAITING);
+        getNewBookingInFuture(item, booker, APPROVED);
+        getNewBookingInFuture(item, booker, REJECTED);
+
+        assertEquals(2, bookingRepository.countByOwnerIdAndStartGreaterThanEqualAndStartLessThanAndStatusIn(
+                owner.getId(), now, now.plusWeeks(1), List.of(WAITING, APPROVED)));
+    }
+
+    private Map<String, Long> getCounters(Long ownerId) {
+        return bookingRepository.findCountersByOwner(ownerId).stream()
+                .filter(counter -> counter.getBookings() != 0)
+                .collect(toMap(BookingRepository.CounterView::getState, BookingRepository.CounterView::getBookings));
+    }
+
+    private static List<Long> getIds(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(toList());
+    }
+
+    private String getStatus(Long bookingId) {
+        return jdbcTemplate.queryForObject(
+                "select status from public.bookings where id = ?", String.class, bookingId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCounterSchedulerTest {
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingCounterScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingCounterScheduler(bookingRepository, meterRegistry, 60000);
+    }
+
+    @Test
+    void advanceCounters_whenBuilt_thenCountedToLagsBehindNow() {
+        when(bookingRepository.advanceCounters(now.minusMinutes(1))).thenReturn(3);
+
+        assertEquals(3, scheduler.advanceCounters(now));
+
+        assertEquals(3.0, meterRegistry.counter("shareit.bookings.counters.moved").count());
+    }
+
+    @Test
+    void advanceCounters_whenNotBuilt_thenNothingCounted() {
+        when(bookingRepository.advanceCounters(now.minusMinutes(1))).thenReturn(-1);
+
+        assertEquals(-1, scheduler.advanceCounters(now));
+
+        assertEquals(0.0, meterRegistry.counter("shareit.bookings.counters.moved").count());
+    }
+
+    @Test
+    void rebuild_thenCountersRebuiltByRepository() {
+        when(bookingRepository.rebuildCounters()).thenReturn(true);
+
+        scheduler.rebuild();
+
+        verify(bookingRepository).rebuildCounters();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpirySchedulerTest {
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingExpiryScheduler(bookingRepository, meterRegistry, 2, 3);
+    }
+
+    @Test
+    void expireWaitingBookings_whenLastBatchIsPartial_thenStop() {
+        when(bookingRepository.cancelExpiredWaiting(now, 2))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        assertEquals(3, scheduler.expireWaitingBookings(now));
+
+        verify(bookingRepository, times(2)).cancelExpiredWaiting(now, 2);
+        assertEquals(3.0, meterRegistry.counter("shareit.bookings.expired").count());
+    }
+
+    @Test
+    void expireWaitingBookings_whenBacklogIsLarge_thenBoundedByMaxBatches() {
+        when(bookingRepository.cancelExpiredWaiting(now, 2))
+                .thenReturn(List.of(1L, 2L));
+
+        assertEquals(6, scheduler.expireWaitingBookings(now));
+
+        verify(bookingRepository, times(3)).cancelExpiredWaiting(now, 2);
+        assertEquals(3, meterRegistry.timer("shareit.bookings.expiry.batch").count());
+    }
+}
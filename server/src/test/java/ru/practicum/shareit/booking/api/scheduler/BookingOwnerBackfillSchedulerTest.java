@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOwnerBackfillSchedulerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingOwnerBackfillScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingOwnerBackfillScheduler(bookingRepository, meterRegistry, 2, 3);
+    }
+
+    @Test
+    void backfillOwners_whenLastBatchIsPartial_thenStop() {
+        when(bookingRepository.backfillOwnerIds(2))
+                .thenReturn(2)
+                .thenReturn(0);
+
+        assertEquals(2, scheduler.backfillOwners());
+
+        verify(bookingRepository, times(2)).backfillOwnerIds(2);
+        assertEquals(2.0, meterRegistry.counter("shareit.bookings.owner.backfilled").count());
+    }
+
+    @Test
+    void backfillOwners_whenBacklogIsLarge_thenBoundedByMaxBatches() {
+        when(bookingRepository.backfillOwnerIds(2))
+                .thenReturn(2);
+
+        assertEquals(6, scheduler.backfillOwners());
+
+        verify(bookingRepository, times(3)).backfillOwnerIds(2);
+    }
+
+    @Test
+    void onStartup_whenBacklogDrained_thenMarkDone() {
+        when(bookingRepository.isJobDone(BookingOwnerBackfillScheduler.STARTUP_JOB)).thenReturn(false);
+        when(bookingRepository.backfillOwnerIds(2)).thenReturn(1);
+
+        scheduler.onStartup();
+
+        verify(bookingRepository).markJobDone(BookingOwnerBackfillScheduler.STARTUP_JOB);
+    }
+
+    @Test
+    void onStartup_whenBacklogLeft_thenNotMarked() {
+        when(bookingRepository.isJobDone(BookingOwnerBackfillScheduler.STARTUP_JOB)).thenReturn(false);
+        when(bookingRepository.backfillOwnerIds(2)).thenReturn(2);
+
+        scheduler.onStartup();
+
+        verify(bookingRepository, never()).markJobDone(anyString());
+    }
+
+    @Test
+    void onStartup_whenDone_thenSkipScan() {
+        when(bookingRepository.isJobDone(BookingOwnerBackfillScheduler.STARTUP_JOB)).thenReturn(true);
+
+        scheduler.onStartup();
+
+        verify(bookingRepository, never()).backfillOwnerIds(anyInt());
+    }
+}
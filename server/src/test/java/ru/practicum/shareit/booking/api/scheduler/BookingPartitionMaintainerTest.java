@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.api.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionMaintainerTest {
+    private static final String MOVE_FROM_DEFAULT = "with moved as (" +
+            "delete from public.bookings_default where start_time >= ? and start_time < ? returning *) " +
+            "insert into public.bookings_p202403 select * from moved";
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private TransactionStatus transactionStatus;
+    private BookingPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionManager, 1);
+    }
+
+    @Test
+    void maintain_whenNotPartitioned_thenSkip() {
+        when(jdbcTemplate.queryForObject(startsWith("select count(*) > 0 from pg_partitioned_table"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        maintainer.maintain(LocalDate.of(2024, 2, 10));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void maintain_whenPartitionMissing_thenMoveRowsFromDefaultBeforeAttach() {
+        when(jdbcTemplate.queryForObject(startsWith("select count(*) > 0 from pg_partitioned_table"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202402")))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202403")))
+                .thenReturn(false);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(jdbcTemplate.update(MOVE_FROM_DEFAULT,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0)))
+                .thenReturn(2);
+
+        maintainer.maintain(LocalDate.of(2024, 2, 10));
+
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("lock table public.bookings_default in exclusive mode");
+        inOrder.verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202403"));
+        inOrder.verify(jdbcTemplate).execute("create table public.bookings_p202403 " +
+                "(like public.bookings including defaults including constraints)");
+        inOrder.verify(jdbcTemplate).update(MOVE_FROM_DEFAULT,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0));
+        inOrder.verify(jdbcTemplate).execute("alter table public.bookings attach partition public.bookings_p202403 " +
+                "for values from ('2024-03-01') to ('2024-04-01')");
+        inOrder.verify(transactionManager).commit(transactionStatus);
+        verify(jdbcTemplate, never()).execute(startsWith("create table public.bookings_p202402"));
+    }
+
+    @Test
+    void maintain_whenCreatedByAnotherInstanceWhileLocking_thenSkip() {
+        when(jdbcTemplate.queryForObject(startsWith("select count(*) > 0 from pg_partitioned_table"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202402")))
+                .thenReturn(false)
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202403")))
+                .thenReturn(true);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+
+        maintainer.maintain(LocalDate.of(2024, 2, 10));
+
+        verify(jdbcTemplate).execute("lock table public.bookings_default in exclusive mode");
+        verify(jdbcTemplate, never()).execute(startsWith("create table"));
+        verify(jdbcTemplate, never()).execute(startsWith("alter table"));
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    void onStartup_whenMaintenanceFails_thenStartupContinues() throws SQLException {
+        connectedTo("PostgreSQL");
+        when(jdbcTemplate.queryForObject(startsWith("select count(*) > 0 from pg_partitioned_table"), eq(Boolean.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertDoesNotThrow(maintainer::onStartup);
+    }
+
+    @Test
+    void onStartup_whenNotPostgreSql_thenSkip() throws SQLException {
+        connectedTo("H2");
+
+        maintainer.onStartup();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+    }
+
+    private void connectedTo(String product) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+    }
+
+    @Test
+    void maintain_whenAttachFails_thenRollbackAndThrow() {
+        when(jdbcTemplate.queryForObject(startsWith("select count(*) > 0 from pg_partitioned_table"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202402")))
+                .thenReturn(false);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("overlapping partition");
+        lenient().doThrow(failure)
+                .when(jdbcTemplate).execute(startsWith("alter table public.bookings attach partition"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> maintainer.maintain(LocalDate.of(2024, 2, 10)));
+
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class), eq("bookings_p202403"));
+    }
+}
@@ -7,14 +7,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.api.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 import ru.practicum.shareit.constants.Constants;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StateException;
@@ -26,13 +32,17 @@ import ru.practicum.shareit.utils.InjectResources;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -63,6 +73,8 @@ class BookingServiceTest extends InjectResources {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private Booking bookingEntity;
     private BookingSimpleDto nextBookingRequest;
@@ -151,7 +163,7 @@ class BookingServiceTest extends InjectResources {
                 .thenReturn(Optional.of(bookingEntity));
         when(userRepository.existsById(ownerId))
                 .thenReturn(true);
-        doNothing().when(bookingRepository).updateStatusById(status, bookingId);
+        when(bookingRepository.updateWaitingStatusById(status, bookingId)).thenReturn(1);
 
         if (Constants.LOGGING_IN_TEST) {
             System.out.printf("itemId: %d, ownerId: %d, bookerId: %d, bookingId: %d%n", itemId, ownerId, bookerId, bookingId);
@@ -166,7 +178,31 @@ class BookingServiceTest extends InjectResources {
         System.out.printf("bookingResponse: %s%n", bookingResponse);
 
         verify(bookingRepository, times(1))
-                .updateStatusById(status, bookingId);
+                .updateWaitingStatusById(status, bookingId);
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BookingStatusChangedEvent.class));
+    }
+
+    @Test
+    void update_whenNoLongerWaiting_thenReturnThrow() {
+        //given
+        Long ownerId = itemStorage.get(1L).getOwner().getId();
+        long bookingId = nextBookingRequest.getId();
+
+        when(bookingRepository.findById(bookingId))
+                .thenReturn(Optional.of(bookingEntity));
+        when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        // cancelled by expiry or decided via approveAll after findById
+        when(bookingRepository.updateWaitingStatusById(APPROVED, bookingId))
+                .thenReturn(0);
+        //when
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> bookingService.update(ownerId, bookingId, true));
+        //then
+        assertEquals("The booking status has already been set.", e.getMessage());
+        // no WAITING -> APPROVED for counters and eligibility: the row was not changed
+        verify(eventPublisher, never()).publishEvent(any(BookingStatusChangedEvent.class));
     }
 
     @Test
@@ -186,7 +222,7 @@ class BookingServiceTest extends InjectResources {
         assertEquals(e.getMessage(), format(Constants.BOOKING_NOT_EXISTS, bookingId));
 
         verify(bookingRepository, never())
-                .updateStatusById(REJECTED, bookingId);
+                .updateWaitingStatusById(REJECTED, bookingId);
     }
 
 
@@ -209,7 +245,7 @@ class BookingServiceTest extends InjectResources {
         assertEquals(e.getMessage(), format(Constants.USER_NOT_EXISTS, ownerId));
 
         verify(bookingRepository, never())
-                .updateStatusById(REJECTED, bookingId);
+                .updateWaitingStatusById(REJECTED, bookingId);
     }
 
     @Test
@@ -238,7 +274,7 @@ class BookingServiceTest extends InjectResources {
                 .thenReturn(Optional.of(bookingEntity));
         when(userRepository.existsById(ownerId))
                 .thenReturn(true);
-        doNothing().when(bookingRepository).updateStatusById(status, bookingId);
+        when(bookingRepository.updateWaitingStatusById(status, bookingId)).thenReturn(1);
         if (Constants.LOGGING_IN_TEST) {
             System.out.printf("itemId: %d, ownerId: %d, bookerId: %d, bookingId: %d%n", itemId, ownerId, bookerId, bookingId);
             System.out.printf("bookingEntity:   %s%n", bookingEntity);
@@ -249,10 +285,14 @@ class BookingServiceTest extends InjectResources {
         bookingResponse = bookingService.update(ownerId, bookingId, true);
         // then
         assertEquals(status, bookingResponse.getStatus());
+        assertEquals(WAITING, bookingEntity.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
         System.out.printf("bookingResponse: %s%n", bookingResponse);
 
         verify(bookingRepository, times(1))
-                .updateStatusById(status, bookingId);
+                .updateWaitingStatusById(status, bookingId);
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BookingStatusChangedEvent.class));
     }
 
     @Test
@@ -281,8 +321,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // CURRENT
-                .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerId, now, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -299,7 +338,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // PAST
-                .findAllByBooker_IdAndEndBeforeOrderByStartDesc(bookerId, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -317,7 +356,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // ALL
-                .findAllByBooker_IdOrderByStartDesc(bookerId, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -334,7 +373,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // FUTURE
-                .findAllByBooker_IdAndStartAfterOrderByStartDesc(bookerId, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -352,8 +391,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // WAITING
-                .findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, WAITING, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -371,8 +409,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // REJECTED
-                .findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, REJECTED, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -407,8 +444,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // CURRENT
-                .findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-                        ownerId, now, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -425,7 +461,7 @@ class BookingServiceTest extends InjectResources {
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // PAST
-                .findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(ownerId, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -441,7 +477,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // ALL
-                .findAllByItem_Owner_IdOrderByStartDesc(ownerId, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -457,7 +493,7 @@ class BookingServiceTest extends InjectResources {
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // FUTURE
-                .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(ownerId, now, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -474,7 +510,7 @@ class BookingServiceTest extends InjectResources {
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // WAITING
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId, WAITING, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -491,7 +527,7 @@ class BookingServiceTest extends InjectResources {
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // REJECTED
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId, REJECTED, pageable))
+                .findAllMatching(any(), eq(pageable)))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -530,4 +566,127 @@ class BookingServiceTest extends InjectResources {
         //then
         assertEquals(e.getMessage(), format("Unknown state: %s", state));
     }
-}
\ No newline at end of file
+
+    @Test
+    void approveAll_whenMixedDecisions_thenReturnResultPerId() {
+        //given
+        Item item = itemStorage.get(1L);
+        Long ownerId = item.getOwner().getId();
+        Item foreignItem = itemStorage.get(2L);
+
+        Booking waiting = Booking.builder().id(1L).item(item).booker(itemStorage.get(2L).getOwner())
+                .start(startNext).end(endNext).status(WAITING).build();
+        Booking approved = Booking.builder().id(2L).item(item).status(APPROVED).build();
+        Booking foreign = Booking.builder().id(3L).item(foreignItem).status(WAITING).build();
+        List<BookingApprovalDto> decisions = List.of(
+                new BookingApprovalDto(1L, true),
+                new BookingApprovalDto(2L, false),
+                new BookingApprovalDto(3L, true),
+                new BookingApprovalDto(4L, false),
+                new BookingApprovalDto(1L, false));
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.updateWaitingStatusByOwner(ownerId,
+                Map.of(1L, APPROVED, 2L, REJECTED, 3L, APPROVED, 4L, REJECTED)))
+                .thenReturn(Set.of(1L));
+        when(bookingRepository.findAllById(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(waiting, approved, foreign));
+        //when
+        List<BookingApprovalResultDto> results = bookingService.approveAll(ownerId, decisions);
+        //then
+        assertEquals(4, results.size());
+        assertEquals(new BookingApprovalResultDto(1L, APPROVED, null), results.get(0));
+        assertEquals(APPROVED, results.get(1).getStatus());
+        assertEquals("The booking status has already been set.", results.get(1).getError());
+        assertEquals(WAITING, results.get(2).getStatus());
+        assertEquals("Access denied. You are not the owner of this item", results.get(2).getError());
+        assertNull(results.get(3).getStatus());
+        assertEquals(format(Constants.BOOKING_NOT_EXISTS, 4L), results.get(3).getError());
+        verify(eventPublisher, times(1)).publishEvent(new BookingStatusChangedEvent(
+                1L, item.getId(), ownerId, waiting.getBooker().getId(), WAITING, APPROVED, startNext, endNext));
+    }
+
+    @Test
+    void getOwnerSummary_whenCountersBuilt_thenStatesFromCounters() {
+        //given
+        Item item = itemStorage.get(1L);
+        Long ownerId = item.getOwner().getId();
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findCountersByOwner(ownerId)).thenReturn(List.of(
+                counter("FUTURE", 2L), counter("PAST", 3L), counter("APPROVED", 4L), counter("WAITING", 1L)));
+        when(bookingRepository.findTopItemsByOwner(ownerId, Constants.SUMMARY_TOP_ITEMS))
+                .thenReturn(List.of(itemCount(item.getId(), item.getName(), 5L)));
+        when(bookingRepository.countByOwnerIdAndStartGreaterThanEqualAndStartLessThanAndStatusIn(
+                ownerId, now, now.plusWeeks(1), List.of(WAITING, APPROVED))).thenReturn(1L);
+        when(bookingRepository.findCountedTo()).thenReturn(Optional.of(now.minusMinutes(1)));
+        //when
+        BookingSummaryDto summary = bookingService.getOwnerSummary(ownerId, now);
+        //then
+        assertEquals(5L, summary.getStates().get(ALL));
+        assertEquals(2L, summary.getStates().get(FUTURE));
+        assertEquals(0L, summary.getStates().get(CURRENT));
+        assertEquals(3L, summary.getStates().get(PAST));
+        assertEquals(1L, summary.getStates().get(BookingState.WAITING));
+        assertEquals(0L, summary.getStates().get(BookingState.CANCELED));
+        assertEquals(BookingState.values().length, summary.getStates().size());
+        assertEquals(1L, summary.getUpcomingWeek());
+        assertEquals(List.of(new BookingSummaryDto.ItemDto(item.getId(), item.getName(), 5L)), summary.getTopItems());
+        assertEquals(now.minusMinutes(1), summary.getCountedTo());
+    }
+
+    @Test
+    void getOwnerSummary_whenInvalidUser_thenReturnThrow() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerSummary(99L, now));
+        verify(bookingRepository, never()).findCountersByOwner(anyLong());
+    }
+
+    private static BookingRepository.CounterView counter(String state, Long bookings) {
+        return new BookingRepository.CounterView() {
+            @Override
+            public String getState() {
+                return state;
+            }
+
+            @Override
+            public Long getBookings() {
+                return bookings;
+            }
+        };
+    }
+
+    private static BookingRepository.ItemCountView itemCount(Long id, String name, Long bookings) {
+        return new BookingRepository.ItemCountView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getBookings() {
+                return bookings;
+            }
+        };
+    }
+
+    @Test
+    void approveAll_whenDecisionIncomplete_thenReturnThrow() {
+        //given
+        Long ownerId = itemStorage.get(1L).getOwner().getId();
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        //when
+        assertThrows(BadRequestException.class,
+                () -> bookingService.approveAll(ownerId, List.of(new BookingApprovalDto(1L, null))));
+        //then
+        verify(bookingRepository, never())
+                .updateWaitingStatusByOwner(anyLong(), any());
+    }
+}
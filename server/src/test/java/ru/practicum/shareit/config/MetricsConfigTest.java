@@ -0,0 +1,63 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class MetricsConfigTest {
+    private MeterRegistry meterRegistry;
+    private TimedService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TimedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    void timed_WithBookingState_TaggedByState() {
+        service.getAll(1L, BookingState.PAST);
+        service.getAll(1L, BookingState.PAST);
+
+        Timer timer = meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tags("class", "TimedService", "method", "getAll", "state", "PAST")
+                .timer();
+
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void timed_WithoutBookingState_TaggedByNone() {
+        service.get(1L);
+
+        Timer timer = meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "get", "state", "none")
+                .timer();
+
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    static class TimedService {
+        public String getAll(Long userId, BookingState state) {
+            return userId + state.name();
+        }
+
+        public String get(Long id) {
+            return String.valueOf(id);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemaInitConfigTest {
+
+    @Test
+    void getPlatform_PostgreSql_PartitionedSchema() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        assertEquals("postgresql", SchemaInitConfig.getPlatform(dataSource));
+    }
+
+    @Test
+    void getPlatform_H2_PlainSchema() {
+        EmbeddedDatabase h2 = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true).build();
+        try {
+            assertEquals("all", SchemaInitConfig.getPlatform(h2));
+        } finally {
+            h2.shutdown();
+        }
+    }
+
+    @Test
+    void getPlatform_DatabaseUnavailable_Throws() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> SchemaInitConfig.getPlatform(dataSource));
+    }
+
+    @Test
+    void getSchemaLocations_CommonScriptFirst() {
+        assertEquals(List.of("classpath:schema.sql", "classpath:schema-postgresql.sql"),
+                SchemaInitConfig.getSchemaLocations("postgresql"));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.exception.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.entity.ErrorException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExceptionControllerTest {
+    private MeterRegistry meterRegistry;
+    private ExceptionController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        controller = new ExceptionController(beanFactory.getBeanProvider(MeterRegistry.class), 1);
+    }
+
+    @Test
+    void domainExceptions_Stackless() {
+        assertEquals(0, new NotFoundException("User not found").getStackTrace().length);
+        assertEquals(0, new BadRequestException("Pageable incorrect").getStackTrace().length);
+    }
+
+    @Test
+    void handleNotFoundException_CountedByType() {
+        ResponseEntity<?> response = null;
+        for (int i = 0; i < 5; i++) {
+            response = controller.handleNotFoundException(new NotFoundException("User not found"));
+        }
+        controller.handleBadRequestException(new BadRequestException("Pageable incorrect"));
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("User not found", ((ErrorException) response.getBody()).getMessage());
+        assertEquals(5, meterRegistry.get("shareit.errors")
+                .tags("exception", "NotFoundException", "status", "404").counter().count());
+        assertEquals(1, meterRegistry.get("shareit.errors")
+                .tags("exception", "BadRequestException", "status", "400").counter().count());
+    }
+}
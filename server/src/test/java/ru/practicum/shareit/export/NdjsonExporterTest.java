@@ -0,0 +1,75 @@
+package ru.practicum.shareit.export;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NdjsonExporterTest {
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final NdjsonExporter exporter = new NdjsonExporter(entityManager, transactionManager,
+            Jackson2ObjectMapperBuilder.json().build(), 2);
+
+    @Test
+    void export_WritesLinePerRow_ClearsEveryFlushRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean[] closed = new boolean[1];
+
+        exporter.export(() -> Stream.of(1L, 2L, 3L).onClose(() -> closed[0] = true),
+                id -> ItemSimpleDto.builder().id(id).name("item" + id).description("d").available(true).build())
+                .writeTo(out);
+
+        assertEquals("{\"id\":1,\"name\":\"item1\",\"description\":\"d\",\"available\":true,\"requestId\":null}\n"
+                        + "{\"id\":2,\"name\":\"item2\",\"description\":\"d\",\"available\":true,\"requestId\":null}\n"
+                        + "{\"id\":3,\"name\":\"item3\",\"description\":\"d\",\"available\":true,\"requestId\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed[0]);
+        verify(entityManager, times(1)).clear();
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void export_Empty_WritesNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(Stream::empty, row -> row).writeTo(out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void export_ClientDisconnected_ThrowsIOException_RollsBack() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> exporter.export(() -> Stream.of(1L, 2L), row -> row).writeTo(broken));
+        verify(transactionManager).rollback(any());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -19,21 +20,30 @@ import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
 import ru.practicum.shareit.item.api.service.ItemServiceImpl;
+import ru.practicum.shareit.item.api.trending.TrendingWindow;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constants.Constants.CREATE_COMMENT;
 import static ru.practicum.shareit.constants.Constants.CREATE_ITEM;
+import static ru.practicum.shareit.constants.Constants.EXPORT_ITEMS;
+import static ru.practicum.shareit.constants.Constants.GET_COMMENTS;
 import static ru.practicum.shareit.constants.Constants.GET_ITEM;
+import static ru.practicum.shareit.constants.Constants.GET_TRENDING_ITEMS;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.UPDATE_ITEM;
 
@@ -247,4 +257,85 @@ class ItemControllerTest {
 
         verify(itemService).createComment(Mockito.any(CommentSimpleDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET " + GET_COMMENTS + " when cursor return next page")
+    void getComments_whenCursor_returnList200() throws Exception {
+        when(itemService.getComments(1L, 1L, 7L, 5)).thenReturn(List.of(commentResponse));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(GET_COMMENTS, 1)
+                .param("cursor", "7")
+                .param("size", "5")
+                .header(HEADER_USER_ID, 1)
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(commentResponse.getId()));
+
+        verify(itemService).getComments(1L, 1L, 7L, 5);
+    }
+
+    @Test
+    @DisplayName("GET " + GET_COMMENTS + " when wrong size return 400")
+    void getComments_whenWrongSize_return400() throws Exception {
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(GET_COMMENTS, 1)
+                .param("size", "0")
+                .header(HEADER_USER_ID, 1)
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET " + GET_TRENDING_ITEMS + " - return trending items from service")
+    void getTrending_returnItemsByWindow() throws Exception {
+        TrendingItemsDto day = new TrendingItemsDto(
+                List.of(new TrendingItemsDto.RankedItemDto(1L, "item", 3.0)), List.of());
+        when(itemService.getTrending())
+                .thenReturn(Map.of(TrendingWindow.DAY, day));
+
+        mvc.perform(MockMvcRequestBuilders.get(GET_TRENDING_ITEMS)
+                        .header(HEADER_USER_ID, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.DAY.booked[0].id").value(1))
+                .andExpect(jsonPath("$.DAY.booked[0].score").value(3.0))
+                .andExpect(jsonPath("$.DAY.commented").isEmpty());
+
+        verify(itemService, times(1)).getTrending();
+    }
+
+    @Test
+    @DisplayName("GET " + EXPORT_ITEMS + " - NDJSON, line per item")
+    void exportAll_returnNdjson() throws Exception {
+        String ndjson = mapper.writeValueAsString(itemRequest) + "\n";
+        when(itemService.exportAllByOwner(1L))
+                .thenReturn(out -> out.write(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(EXPORT_ITEMS)
+                        .header(HEADER_USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ndjson));
+    }
+
+    @Test
+    @DisplayName("GET " + EXPORT_ITEMS + " when not exists User - return 404")
+    void exportAll_whenUserNotFound_return404() throws Exception {
+        when(itemService.exportAllByOwner(1L))
+                .thenThrow(new NotFoundException("User not found"));
+
+        mvc.perform(MockMvcRequestBuilders.get(EXPORT_ITEMS)
+                        .header(HEADER_USER_ID, 1L))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.api.repository;
 
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.config.SchemaInitConfig;
+import ru.practicum.shareit.item.api.repository.CommentRepository.CommentView;
 import ru.practicum.shareit.item.entity.CommentEntity;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.api.repository.UserRepository;
@@ -12,11 +15,12 @@ import ru.practicum.shareit.user.entity.User;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static ru.practicum.shareit.constants.Constants.RANDOM;
 
 @DataJpaTest
-@Disabled
+@Import(SchemaInitConfig.class)
 class CommentRepositoryTest {
     private final LocalDateTime now = LocalDateTime
             .of(2000, 1, 1, 12, 0, 0, 0);
@@ -40,37 +44,61 @@ class CommentRepositoryTest {
         return itemRepository.save(item);
     }
 
-    private void getNewComment(User author, Item item) {
-        CommentEntity comment = RANDOM.nextObject(CommentEntity.class);
-        comment.setAuthor(author);
-        comment.setItem(item);
-        comment.setCreated(now);
+    private CommentEntity getNewComment(User author, Item item, LocalDateTime created) {
+        CommentEntity comment = CommentEntity.builder()
+                .text("Comment")
+                .author(author)
+                .item(item)
+                .created(created).build();
 
-        commentRepository.save(comment);
+        return commentRepository.save(comment);
     }
 
     @Test
-    void findByItem_IdInOrderByCreatedDesc() {
+    void findLatestByItemIds() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
+        Item item3 = getNewItem(owner);
         User author = getNewUser();
-        getNewComment(author, item1);
+        for (int i = 0; i < 5; i++) {
+            getNewComment(author, item1, now.plusMinutes(i));
+        }
+        CommentEntity single = getNewComment(author, item2, now);
 
-        assertEquals(1, commentRepository
-                .findByItem_IdInOrderByCreatedDesc(List.of(item1.getId(), item2.getId()))
-                .size());
+        List<CommentView> latest = commentRepository
+                .findLatestByItemIds(List.of(item1.getId(), item2.getId(), item3.getId()), 2);
+
+        assertEquals(3, latest.size());
+        assertEquals(item1.getId(), latest.get(0).getItemId());
+        assertEquals(now.plusMinutes(4), latest.get(0).getCreated());
+        assertEquals(now.plusMinutes(3), latest.get(1).getCreated());
+        assertEquals(5L, latest.get(0).getTotal());
+        assertEquals(author.getName(), latest.get(0).getAuthorName());
+        assertEquals(single.getId(), latest.get(2).getId());
+        assertEquals(1L, latest.get(2).getTotal());
     }
 
     @Test
-    void findAllByItem_IdOrderByCreatedDesc() {
+    void findNextPageByItem_Id() {
         User owner = getNewUser();
         Item item = getNewItem(owner);
         User author = getNewUser();
-        getNewComment(author, item);
+        CommentEntity first = getNewComment(author, item, now);
+        CommentEntity second = getNewComment(author, item, now);
+        CommentEntity third = getNewComment(author, item, now.plusMinutes(1));
+
+        List<CommentEntity> page = commentRepository.findFirstPageByItem_Id(item.getId(), Pageable.ofSize(2));
+        assertEquals(List.of(third.getId(), second.getId()), getIds(page));
+
+        CommentEntity last = page.get(1);
+        assertEquals(List.of(first.getId()), getIds(commentRepository.findNextPageByItem_Id(
+                item.getId(), last.getCreated(), last.getId(), Pageable.ofSize(2))));
+    }
 
-        assertEquals(1, commentRepository
-                .findAllByItem_IdOrderByCreatedDesc(item.getId())
-                .size());
+    private List<Long> getIds(List<CommentEntity> comments) {
+        return comments.stream()
+                .map(CommentEntity::getId)
+                .collect(toList());
     }
-}
\ No newline at end of file
+}
@@ -4,21 +4,27 @@ package ru.practicum.shareit.item.api.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.config.SchemaInitConfig;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.util.List;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static ru.practicum.shareit.constants.Constants.RANDOM;
 
 
 @DataJpaTest
+@Import(SchemaInitConfig.class)
 public class ItemRepositoryITest {
 
     private final Pageable pageable = Pageable.ofSize(10);
@@ -98,6 +104,28 @@ public class ItemRepositoryITest {
         assertEquals(2, searchItemByNameOrDescription.size());
     }
 
+    @Test
+    void findAvailableByIdIn() {
+        //given
+        User owner = getNewUser();
+        Item first = getNewItem(owner);
+        Item second = getNewItem(owner);
+        Item unavailable = getNewItem(owner);
+        unavailable.setAvailable(false);
+        itemRepository.saveAndFlush(unavailable);
+
+        //when
+        List<ItemRepository.ItemNameView> views = itemRepository.findAvailableByIdIn(
+                List.of(first.getId(), unavailable.getId(), second.getId(), Long.MAX_VALUE));
+
+        //then
+        assertEquals(Set.of(first.getId(), second.getId()),
+                views.stream().map(ItemRepository.ItemNameView::getId).collect(toSet()));
+        assertEquals(first.getName(), views.stream()
+                .filter(view -> view.getId().equals(first.getId()))
+                .findFirst().orElseThrow().getName());
+    }
+
     @Test
     void existsByIdAndOwner_Id() {
         //given
@@ -238,4 +266,38 @@ public class ItemRepositoryITest {
         Item itemUpdate = itemRepository.getReferenceById(itemId);
         assertFalse(itemUpdate.isAvailable());
     }
-}
\ No newline at end of file
+
+    @Test
+    void insertAll_AllocatesIdsFromSequence() {
+        //given
+        User owner = getListUsers().get(0);
+        userRepository.flush();
+        List<Item> items = RANDOM.objects(Item.class, 3).collect(toList());
+        items.forEach(item -> {
+            item.setId(null);
+            item.setOwner(User.builder().id(owner.getId()).build());
+            item.setRequest(null);
+        });
+
+        //when
+        itemRepository.insertAll(items);
+
+        //then
+        for (Item item : items) {
+            Item saved = itemRepository.findById(item.getId()).orElseThrow();
+            assertEquals(item.getName(), saved.getName());
+            assertEquals(owner.getId(), saved.getOwner().getId());
+        }
+        assertEquals(3, itemRepository.findAllByOwner_Id(owner.getId(), pageable).size());
+
+        Item saved = RANDOM.nextObject(Item.class);
+        saved.setId(null);
+        saved.setOwner(owner);
+        saved.setRequest(null);
+        saved = itemRepository.saveAndFlush(saved);
+        assertEquals(4, itemRepository.findAllByOwner_Id(owner.getId(), pageable).size());
+        for (Item item : items) {
+            assertNotEquals(item.getId(), saved.getId());
+        }
+    }
+}
@@ -8,7 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
-import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.booking.api.eligibility.BookingEligibilityIndex;
 import ru.practicum.shareit.booking.api.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -32,7 +32,6 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.ShareItServer.RANDOM;
-import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
 import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 
@@ -50,7 +49,7 @@ class ItemServiceCommentsITest {
     @Autowired
     private BookingService bookingService;
     @Autowired
-    private BookingRepository bookingRepository;
+    private BookingEligibilityIndex bookingEligibilityIndex;
 
 
     @Test
@@ -73,11 +72,7 @@ class ItemServiceCommentsITest {
                 rentStartNDaysAgo, rentFinishNDaysAgo);
 
 
-        assertFalse(bookingRepository
-                .existsCompletedBookingByTheUserOfTheItem(
-                        itemId, ownerId,
-                        APPROVED,
-                        now.minusDays(publishCommentNDaysAgo)));
+        assertFalse(bookingEligibilityIndex.isEligible(itemId, ownerId, now.minusDays(publishCommentNDaysAgo)));
 
         CommentSimpleDto commentSimpleDto = RANDOM.nextObject(CommentSimpleDto.class);
         commentSimpleDto.setAuthorId(authorId);
@@ -111,11 +106,7 @@ class ItemServiceCommentsITest {
         getBookingId(ownerId, itemId, authorId,
                 rentStartNDaysAgo, rentFinishNDaysAgo);
 
-        assertFalse(bookingRepository
-                .existsCompletedBookingByTheUserOfTheItem(
-                        itemId, ownerId,
-                        APPROVED,
-                        now.minusDays(publishCommentNDaysAgo)));
+        assertFalse(bookingEligibilityIndex.isEligible(itemId, ownerId, now.minusDays(publishCommentNDaysAgo)));
 
         CommentSimpleDto commentSimpleDto = RANDOM.nextObject(CommentSimpleDto.class);
         commentSimpleDto.setAuthorId(authorId);
@@ -148,11 +139,7 @@ class ItemServiceCommentsITest {
         getBookingId(ownerId, itemId, authorId,
                 rentStartNDaysAgo, rentFinishNDaysAgo);
 // должно быть true
-        assertFalse(bookingRepository
-                .existsCompletedBookingByTheUserOfTheItem(
-                        itemId, ownerId,
-                        APPROVED,
-                        now.minusDays(publishCommentNDaysAgo)));
+        assertFalse(bookingEligibilityIndex.isEligible(itemId, ownerId, now.minusDays(publishCommentNDaysAgo)));
 
         CommentSimpleDto commentSimpleDto = RANDOM.nextObject(CommentSimpleDto.class);
         commentSimpleDto.setAuthorId(authorId);
@@ -252,10 +239,7 @@ class ItemServiceCommentsITest {
         commentSimpleDto.setItemId(itemId);
         commentSimpleDto.setCreated(now);
 
-        assertFalse(bookingRepository
-                .existsCompletedBookingByTheUserOfTheItem(
-                        itemId, authorId,
-                        APPROVED, now.minusDays(0)));
+        assertFalse(bookingEligibilityIndex.isEligible(itemId, authorId, now.minusDays(0)));
 
         NotFoundException e = assertThrows(NotFoundException.class,
                 () -> itemService.createComment(commentSimpleDto));
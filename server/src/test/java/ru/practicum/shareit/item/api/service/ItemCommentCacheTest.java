@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+import ru.practicum.shareit.item.api.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.api.repository.CommentRepository;
+import ru.practicum.shareit.item.api.repository.CommentRepository.CommentView;
+import ru.practicum.shareit.item.api.service.ItemCommentCache.ItemComments;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemCommentCacheTest {
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private ItemCommentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemCommentCache(commentRepository, transactionManager, 2, 100, 600);
+    }
+
+    private CommentView getView(Long id, Long itemId, long total) {
+        CommentView view = mock(CommentView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getText()).thenReturn("Comment " + id);
+        when(view.getAuthorName()).thenReturn("user");
+        when(view.getCreated()).thenReturn(now.minusMinutes(id));
+        if (total > 0) {
+            when(view.getTotal()).thenReturn(total);
+        }
+        return view;
+    }
+
+    @Test
+    void getAll_whenMiss_thenLoadOnceInBatch() {
+        List<CommentView> views = List.of(getView(1L, 10L, 3), getView(2L, 10L, 0));
+        when(commentRepository.findLatestByItemIds(List.of(10L, 20L), 2)).thenReturn(views);
+
+        Map<Long, ItemComments> comments = cache.getAll(List.of(10L, 20L));
+        cache.getAll(List.of(10L, 20L));
+
+        assertEquals(2, comments.get(10L).getLatest().size());
+        assertEquals(3, comments.get(10L).getCount());
+        assertTrue(comments.get(20L).getLatest().isEmpty());
+        assertEquals(0, comments.get(20L).getCount());
+        verify(commentRepository, times(1)).findLatestByItemIds(anyList(), anyInt());
+    }
+
+    @Test
+    void onCommentCreated_whenCached_thenPrependWithoutReload() {
+        List<CommentView> views = List.of(getView(1L, 10L, 3), getView(2L, 10L, 0));
+        when(commentRepository.findLatestByItemIds(List.of(10L), 2)).thenReturn(views);
+        cache.get(10L);
+
+        cache.onCommentCreated(new CommentCreatedEvent(10L, new CommentDto(5L, "New", "user", now)));
+        ItemComments comments = cache.get(10L);
+
+        assertEquals(List.of(5L, 1L), List.of(
+                comments.getLatest().get(0).getId(),
+                comments.getLatest().get(1).getId()));
+        assertEquals(4, comments.getCount());
+        verify(commentRepository, times(1)).findLatestByItemIds(anyList(), anyInt());
+    }
+
+    @Test
+    void getAll_whenMiss_thenLoadInNewWritableTransactionOnPrimary() {
+        when(commentRepository.findLatestByItemIds(List.of(10L), 2)).thenReturn(List.of());
+
+        cache.get(10L);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    void getAll_whenTtlExpired_thenReload() {
+        cache = new ItemCommentCache(commentRepository, transactionManager, 2, 100, 0);
+        when(commentRepository.findLatestByItemIds(List.of(10L), 2)).thenReturn(List.of());
+
+        cache.get(10L);
+        cache.get(10L);
+
+        verify(commentRepository, times(2)).findLatestByItemIds(anyList(), anyInt());
+    }
+}
@@ -8,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.constants.Constants;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.api.dto.ItemBulkDto;
+import ru.practicum.shareit.item.api.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
@@ -18,11 +20,15 @@ import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.utils.InjectResources;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -81,4 +87,47 @@ class ItemServiceCreateTest extends InjectResources {
 
         verify(itemRepository, never()).save(item);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("ITEM CREATE ALL _ SKIP LINE IF REQUEST NOT EXIST")
+    void createAll_whenRequestNotExists_thenLineFailed() {
+        final long userId = 1;
+        List<ItemBulkDto> items = List.of(
+                new ItemBulkDto(1, "Дрель", "Ударная", true, null),
+                new ItemBulkDto(2, "Пила", "Цепная", true, 7L),
+                new ItemBulkDto(3, "Лестница", "3 м", false, 8L));
+
+        when(userRepository.existsById(userId))
+                .thenReturn(true);
+        when(itemRequestRepository.findExistingIds(Set.of(7L, 8L)))
+                .thenReturn(Set.of(8L));
+        doAnswer(invocation -> {
+            List<Item> created = invocation.getArgument(0);
+            for (int i = 0; i < created.size(); i++) {
+                created.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(itemRepository).insertAll(anyList());
+
+        List<ItemBulkResultDto> results = itemService.createAll(userId, items);
+
+        assertEquals(List.of(
+                ItemBulkResultDto.created(1, 100L),
+                ItemBulkResultDto.failed(2, format(Constants.REQUEST_NOT_EXISTS, 7L)),
+                ItemBulkResultDto.created(3, 101L)), results);
+    }
+
+    @Test
+    @DisplayName("ITEM CREATE ALL _ THROW IF USER NOT EXIST")
+    void createAll_whenUserNotExists_thenReturnException() {
+        final long userId = 1;
+
+        when(userRepository.existsById(userId))
+                .thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.createAll(userId, List.of(new ItemBulkDto(1, "Дрель", "Ударная", true, null))));
+
+        verify(itemRepository, never()).insertAll(anyList());
+    }
+}
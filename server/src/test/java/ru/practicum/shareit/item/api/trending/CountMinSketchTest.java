@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.api.trending;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+    @Test
+    void estimate_whenManyKeys_thenNeverBelowExactAndHeavyKeysClose() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (long key = 1; key <= 10_000; key++) {
+            sketch.add(key, 1);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.add(42L, 1);
+        }
+
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(sketch.estimate(key) >= (key == 42L ? 501 : 1));
+        }
+        // e / width * 10 500 = ~28 с вероятностью 1 - e^-4
+        assertTrue(sketch.estimate(42L) < 501 + 28, "estimate " + sketch.estimate(42L));
+        assertEquals(0, sketch.estimate(20_000L), 28);
+    }
+
+    @Test
+    void scale_whenFactor_thenAllEstimatesScaled() {
+        CountMinSketch sketch = new CountMinSketch(2, 64);
+        sketch.add(1L, 4);
+        sketch.add(2L, 2);
+
+        sketch.scale(0.5);
+
+        assertEquals(2, sketch.estimate(1L), 1e-9);
+        assertEquals(1, sketch.add(2L, 0), 1e-9);
+    }
+}
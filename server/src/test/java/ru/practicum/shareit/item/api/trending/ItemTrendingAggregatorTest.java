@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.api.trending;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.api.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto;
+import ru.practicum.shareit.item.api.dto.TrendingItemsDto.RankedItemDto;
+import ru.practicum.shareit.item.api.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.repository.ItemRepository.ItemNameView;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
+import static ru.practicum.shareit.item.api.trending.TrendingWindow.DAY;
+import static ru.practicum.shareit.item.api.trending.TrendingWindow.MONTH;
+import static ru.practicum.shareit.item.api.trending.TrendingWindow.WEEK;
+
+@ExtendWith(MockitoExtension.class)
+class ItemTrendingAggregatorTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private void book(ItemTrendingAggregator aggregator, long itemId, BookingStatus previousStatus, int times) {
+        for (int i = 0; i < times; i++) {
+            aggregator.onBookingCreated(new BookingStatusChangedEvent(
+                    1L, itemId, 30L, 20L, previousStatus, previousStatus == null ? WAITING : APPROVED, null, null));
+        }
+    }
+
+    private void comment(ItemTrendingAggregator aggregator, long itemId, int times) {
+        for (int i = 0; i < times; i++) {
+            aggregator.onCommentCreated(new CommentCreatedEvent(itemId, null));
+        }
+    }
+
+    private void available(Long... itemIds) {
+        List<ItemNameView> views = Arrays.stream(itemIds)
+                .map(id -> {
+                    ItemNameView view = mock(ItemNameView.class);
+                    when(view.getId()).thenReturn(id);
+                    when(view.getName()).thenReturn("item " + id);
+                    return view;
+                })
+                .collect(toList());
+        when(itemRepository.findAvailableByIdIn(anyCollection())).thenReturn(views);
+    }
+
+    private static List<Long> ids(List<RankedItemDto> items) {
+        return items.stream().map(RankedItemDto::getId).collect(toList());
+    }
+
+    @Test
+    void refresh_whenNewBookingsAndComments_thenAvailableItemsRanked() {
+        ItemTrendingAggregator aggregator = new ItemTrendingAggregator(itemRepository, 10, 100, 4, 256);
+        book(aggregator, 1L, null, 3);
+        book(aggregator, 2L, null, 1);
+        book(aggregator, 2L, WAITING, 5);
+        book(aggregator, 3L, null, 5);
+        comment(aggregator, 2L, 2);
+        available(1L, 2L);
+
+        aggregator.refresh(System.nanoTime());
+        Map<TrendingWindow, TrendingItemsDto> trending = aggregator.get();
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            assertEquals(List.of(1L, 2L), ids(trending.get(window).getBooked()));
+            assertEquals(List.of(2L), ids(trending.get(window).getCommented()));
+        }
+        RankedItemDto top = trending.get(DAY).getBooked().get(0);
+        assertEquals("item 1", top.getName());
+        assertEquals(3, top.getScore(), 0.01);
+    }
+
+    @Test
+    void refresh_whenWeekPassed_thenDayForgetsOldBookingsMonthKeeps() {
+        ItemTrendingAggregator aggregator = new ItemTrendingAggregator(itemRepository, 10, 100, 4, 256);
+        long start = System.nanoTime();
+        book(aggregator, 1L, null, 10);
+        aggregator.refresh(start + Duration.ofDays(7).toNanos());
+        book(aggregator, 2L, null, 2);
+        available(1L, 2L);
+
+        aggregator.refresh(start + Duration.ofDays(7).toNanos());
+        Map<TrendingWindow, TrendingItemsDto> trending = aggregator.get();
+
+        assertEquals(List.of(2L), ids(trending.get(DAY).getBooked()));
+        assertEquals(List.of(1L, 2L), ids(trending.get(WEEK).getBooked()));
+        assertEquals(List.of(1L, 2L), ids(trending.get(MONTH).getBooked()));
+        assertEquals(10 * Math.exp(-7.0 / 30), trending.get(MONTH).getBooked().get(0).getScore(), 0.01);
+    }
+
+    @Test
+    void refresh_whenCandidatesFull_thenFrequentItemDisplacesRare() {
+        ItemTrendingAggregator aggregator = new ItemTrendingAggregator(itemRepository, 2, 2, 4, 256);
+        book(aggregator, 1L, null, 1);
+        book(aggregator, 2L, null, 2);
+        book(aggregator, 3L, null, 1);
+        book(aggregator, 3L, null, 3);
+        available(3L, 2L);
+
+        aggregator.refresh(System.nanoTime());
+
+        assertEquals(List.of(3L, 2L), ids(aggregator.get().get(DAY).getBooked()));
+    }
+
+    @Test
+    void refresh_whenNoEvents_thenEmptyWithoutQuery() {
+        ItemTrendingAggregator aggregator = new ItemTrendingAggregator(itemRepository, 10, 100, 4, 256);
+
+        aggregator.refresh(System.nanoTime());
+
+        assertTrue(aggregator.get().get(DAY).getBooked().isEmpty());
+        assertEquals(Set.of(TrendingWindow.values()), aggregator.get().keySet());
+        verify(itemRepository, never()).findAvailableByIdIn(anyCollection());
+    }
+}
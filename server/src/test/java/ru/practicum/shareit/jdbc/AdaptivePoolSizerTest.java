@@ -0,0 +1,145 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Размер пула по заданным таймерам Hikari и часам замеров, без нагрузки и реального времени.
+ */
+class AdaptivePoolSizerTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Timer usage = Timer.builder("hikaricp.connections.usage").tag("pool", "shareit")
+            .register(meterRegistry);
+    private final Timer acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "shareit")
+            .register(meterRegistry);
+    private final HikariPoolMXBean poolBean = mock(HikariPoolMXBean.class);
+    private final HikariDataSource pool = spy(new HikariDataSource());
+    private final AdaptivePoolSizer sizer = new AdaptivePoolSizer(pool, meterRegistry, 2, 10, 1000, 1.2);
+    private long now = 0;
+
+    AdaptivePoolSizerTest() {
+        pool.setPoolName("shareit");
+        setSize(4);
+        doReturn(poolBean).when(pool).getHikariPoolMXBean();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void resize_FirstSampleOrClockNotAdvanced_NoChange() {
+        assertEquals(-1, sizer.resize(pool, now));
+        assertEquals(-1, sizer.resize(pool, now));
+        assertEquals(4, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    void resize_PoolNotStarted_NoChange() {
+        doReturn(null).when(pool).getHikariPoolMXBean();
+
+        assertEquals(-1, sizer.resize(pool, now));
+    }
+
+    @Test
+    void resize_Load_LittlesLawWithHeadroom_GrowsMaxBeforeMinIdle() {
+        sizer.resize(pool, now);
+        // 200 checkouts/s × (20 ms hold + 5 ms wait) = 5 connections, × 1.2 = 6
+        checkouts(200, 20, 5);
+
+        assertEquals(6, sizer.resize(pool, now += SECOND));
+
+        assertEquals(6, pool.getMaximumPoolSize());
+        assertEquals(6, pool.getMinimumIdle());
+        InOrder inOrder = inOrder(pool);
+        inOrder.verify(pool).setMaximumPoolSize(6);
+        inOrder.verify(pool).setMinimumIdle(6);
+    }
+
+    @Test
+    void resize_DemandAboveMax_CappedAtMax() {
+        sizer.resize(pool, now);
+        // 400 checkouts over 2 s × 100 ms = 20 connections
+        checkouts(400, 100, 0);
+
+        assertEquals(10, sizer.resize(pool, now += 2 * SECOND));
+        assertEquals(10, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    void resize_ThreadsAwaitingConnection_GrowsAtLeastByOne() {
+        sizer.resize(pool, now);
+        when(poolBean.getThreadsAwaitingConnection()).thenReturn(3);
+        checkouts(10, 10, 0);
+
+        assertEquals(5, sizer.resize(pool, now += SECOND));
+        assertEquals(5, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    void resize_Idle_ShrinksByOnePerSample_MinIdleBeforeMax_NotBelowMin() {
+        sizer.resize(pool, now);
+
+        assertEquals(3, sizer.resize(pool, now += SECOND));
+        InOrder inOrder = inOrder(pool);
+        inOrder.verify(pool).setMinimumIdle(3);
+        inOrder.verify(pool).setMaximumPoolSize(3);
+
+        assertEquals(2, sizer.resize(pool, now += SECOND));
+        assertEquals(2, sizer.resize(pool, now += SECOND));
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertEquals(2, pool.getMinimumIdle());
+    }
+
+    @Test
+    void resize_MaxLimitedByConnectionsPerCpu() {
+        AdaptivePoolSizer perCpu = new AdaptivePoolSizer(pool, meterRegistry, 2, 1000, 1, 1.2);
+        int cap = Math.max(2, Runtime.getRuntime().availableProcessors());
+        perCpu.resize(pool, now);
+        checkouts(1000, 1000, 0);
+
+        assertEquals(cap, perCpu.resize(pool, now += SECOND));
+    }
+
+    @Test
+    void findPools_Routing_PrimaryAndReplicaPools() {
+        HikariDataSource primary = new HikariDataSource();
+        HikariDataSource replica = new HikariDataSource();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.Replica("replica-1", replica, null)),
+                new ReadYourWrites(1000), meterRegistry, 5000, 0);
+
+        assertEquals(List.of(primary), AdaptivePoolSizer.findPools(primary));
+        assertEquals(List.of(primary, replica), AdaptivePoolSizer.findPools(routing));
+    }
+
+    private void setSize(int size) {
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(size);
+    }
+
+    private void checkouts(int count, long holdMillis, long waitMillis) {
+        for (int i = 0; i < count; i++) {
+            usage.record(Duration.ofMillis(holdMillis));
+            acquire.record(Duration.ofMillis(waitMillis));
+        }
+    }
+}
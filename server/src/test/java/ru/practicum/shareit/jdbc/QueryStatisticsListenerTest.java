@@ -0,0 +1,68 @@
+package ru.practicum.shareit.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryStatisticsListenerTest {
+    private final QueryStatisticsListener listener = new QueryStatisticsListener(100, 2);
+
+    private void execute(String sql, long elapsed, Object result) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsed);
+        execInfo.setResult(result);
+        listener.afterQuery(execInfo, List.of(new QueryInfo(sql)));
+    }
+
+    @Test
+    void fingerprint_LiteralsAndInLists_Replaced() {
+        assertEquals("select * from items i where i.owner_id = ? and i.name like ? and i.id in (?+)",
+                QueryFingerprint.of("SELECT *  FROM items i\n WHERE i.owner_id = 42 AND i.name LIKE '%дрель%' "
+                        + "AND i.id IN (?, ?, ?)"));
+        assertEquals(QueryFingerprint.of("select * from items where id in (?)"),
+                QueryFingerprint.of("select * from items where id in (?, ?)"));
+    }
+
+    @Test
+    void afterQuery_SameFingerprint_Aggregated() {
+        execute("update bookings set status = 'CANCELED' where id = 1", 10, 1);
+        execute("update bookings set status = 'CANCELED' where id = 2", 150, 3);
+
+        List<QueryStatistics> statistics = listener.getStatistics();
+
+        assertEquals(1, statistics.size());
+        QueryStatistics stats = statistics.get(0);
+        assertEquals("update bookings set status = ? where id = ?", stats.getFingerprint());
+        assertEquals(2, stats.getCount());
+        assertEquals(160, stats.getTotalMillis());
+        assertEquals(150, stats.getMaxMillis());
+        assertEquals(80.0, stats.getMeanMillis());
+        assertEquals(4, stats.getRows());
+        assertEquals(1, stats.getSlow());
+    }
+
+    @Test
+    void afterQuery_TooManyFingerprints_CollectedToOther() {
+        execute("select * from users", 3, null);
+        execute("select * from items", 2, null);
+        execute("select * from bookings", 1, null);
+
+        List<QueryStatistics> statistics = listener.getStatistics();
+
+        assertEquals(3, statistics.size());
+        assertEquals(QueryStatisticsListener.OTHER, statistics.get(2).getFingerprint());
+    }
+
+    @Test
+    void reset_ClearsStatistics() {
+        execute("select * from users", 3, null);
+
+        listener.reset();
+
+        assertEquals(0, listener.getStatistics().size());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class ReadYourWritesTest {
+    private final AtomicLong now = new AtomicLong(10_000);
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(1000, now::get);
+
+    private void request(String method, String userId) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        if (userId != null) {
+            request.addHeader(HEADER_USER_ID, userId);
+        }
+        readYourWrites.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test
+    void doFilter_WriteRequest_UserPinned_ReadNotRecorded() throws ServletException, IOException {
+        request("GET", "1");
+        request("POST", "2");
+        request("PATCH", "not a number");
+        request("DELETE", null);
+
+        assertFalse(readYourWrites.isPinned(1, 0));
+        assertTrue(readYourWrites.isPinned(2, 0));
+        assertEquals(1, readYourWrites.size());
+    }
+
+    @Test
+    void isPinned_WindowOrReplicaLag_WhicheverLonger() {
+        readYourWrites.recordWrite(1);
+        now.addAndGet(1500);
+
+        assertFalse(readYourWrites.isPinned(1, 200));
+        assertTrue(readYourWrites.isPinned(1, 2000));
+    }
+
+    @Test
+    void evict_OlderThanMaxLag_Removed() {
+        readYourWrites.recordWrite(1);
+        now.addAndGet(3000);
+        readYourWrites.recordWrite(2);
+        now.addAndGet(3000);
+
+        readYourWrites.evict(5000);
+
+        assertEquals(1, readYourWrites.size());
+        assertTrue(readYourWrites.isPinned(2, 5000));
+    }
+}
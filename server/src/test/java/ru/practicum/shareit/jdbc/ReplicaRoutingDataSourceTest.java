@@ -0,0 +1,154 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.jdbc.ReplicaRoutingDataSource.Replica;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class ReplicaRoutingDataSourceTest {
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(1000);
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        dataSource = new ReplicaRoutingDataSource(primary,
+                List.of(new Replica("replica-1", first, null), new Replica("replica-2", second, null)),
+                readYourWrites, meterRegistry, 5000, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Connection route() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("shareit.datasource.routed").tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+
+    @Test
+    void getConnection_ReadWrite_Primary() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertSame(primaryConnection, route());
+        assertEquals(1, routed("primary", "write"));
+    }
+
+    @Test
+    void getConnection_ReadOnly_ReplicasRoundRobin() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(firstConnection, route());
+        assertSame(secondConnection, route());
+        assertSame(firstConnection, route());
+        assertEquals(3, routed("replica", "read"));
+    }
+
+    @Test
+    void getConnection_ReadOnlyAfterOwnWrite_Primary() throws SQLException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(HEADER_USER_ID, "7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.recordWrite(7);
+
+        assertSame(primaryConnection, route());
+        assertEquals(1, routed("primary", "read-your-writes"));
+
+        request.removeHeader(HEADER_USER_ID);
+        request.addHeader(HEADER_USER_ID, "8");
+        assertSame(secondConnection, route());
+    }
+
+    @Test
+    void getConnection_ReplicaFails_NextReplicaThenPrimary() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(secondConnection, route());
+
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        assertSame(primaryConnection, route());
+        assertEquals(1, routed("primary", "replica-unavailable"));
+        assertEquals(0, meterRegistry.get("shareit.datasource.replica.up").tag("replica", "replica-2")
+                .gauge().value());
+    }
+
+    @Test
+    void checkReplicas_LagOverMax_ReplicaSkipped_RecoveredAfterCatchUp() throws SQLException {
+        Connection laggingConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        DataSource lagging = mock(DataSource.class);
+        when(lagging.getConnection()).thenReturn(laggingConnection);
+        when(laggingConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(6000L, 10L);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(new Replica("replica-1", lagging, ReplicaRoutingDataSource.POSTGRESQL_LAG_QUERY)),
+                readYourWrites, new SimpleMeterRegistry(), 5000, 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routing.checkReplicas();
+        assertSame(primaryConnection, routing.getConnection());
+
+        routing.checkReplicas();
+        assertSame(laggingConnection, routing.getConnection());
+    }
+
+    @Test
+    void checkReplicas_DownReplica_Recovered() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"))
+                .thenReturn(firstConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        dataSource.checkReplicas();
+        assertSame(secondConnection, route());
+        assertSame(secondConnection, route());
+
+        dataSource.checkReplicas();
+        assertTrue(List.of(firstConnection, secondConnection).contains(route()));
+        assertEquals(1, meterRegistry.get("shareit.datasource.replica.up").tag("replica", "replica-1")
+                .gauge().value());
+    }
+}
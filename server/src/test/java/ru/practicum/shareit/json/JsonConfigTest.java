@@ -0,0 +1,91 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonConfigTest {
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper fastMapper = JsonConfig.configure(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void isoLocalDateTimeSerializer_SameAsDefault() throws Exception {
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 0),
+                LocalDateTime.of(999, 1, 1, 0, 0, 0, 500_000_000),
+                LocalDateTime.of(2024, 6, 7, 8, 9, 10, 123_000),
+                LocalDateTime.of(2024, 6, 7, 8, 9, 10, 1),
+                LocalDateTime.of(10_000, 1, 1, 0, 0),
+                LocalDateTime.of(-5, 1, 1, 0, 0));
+
+        for (LocalDateTime value : values) {
+            assertEquals(defaultMapper.writeValueAsString(value), fastMapper.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void isoLocalDateTimeSerializer_WithJsonFormat_UsesPattern() throws Exception {
+        Formatted formatted = new Formatted(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+
+        assertEquals("{\"time\":\"02.01.2024 03:04\"}", fastMapper.writeValueAsString(formatted));
+    }
+
+    @Test
+    void isoLocalDateTimeSerializer_WithTimestamps_WritesArray() throws Exception {
+        LocalDateTime value = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+        assertEquals("[2024,1,2,3,4,5]",
+                fastMapper.writer(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(value));
+    }
+
+    @Test
+    void prebuiltWriterConverter_BookingList_SameAsDefault() throws Exception {
+        List<BookingDto> bookings = List.of(
+                new BookingDto(1L, LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 1, 3, 3, 4, 5, 7000),
+                        BookingStatus.APPROVED, new BookingDto.ItemDto(2L, "Дрель"), new BookingDto.BookerDto(3L)),
+                new BookingDto(4L, null, null, BookingStatus.WAITING, null, null));
+        PrebuiltWriterHttpMessageConverter converter = new PrebuiltWriterHttpMessageConverter(fastMapper);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpOutputMessage message = new MockHttpOutputMessage();
+            converter.write(bookings, new TypeReference<List<BookingDto>>() {
+            }.getType(), null, message);
+
+            assertEquals(defaultMapper.writeValueAsString(bookings), message.getBodyAsString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void prebuiltWriterConverter_UnresolvableType_WritesByValueClass() throws Exception {
+        Map<String, Object> health = Map.of("status", "UP");
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        new PrebuiltWriterHttpMessageConverter(fastMapper).write(health, ResolvableType.NONE.getType(), null, message);
+
+        assertEquals("{\"status\":\"UP\"}", message.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    static class Formatted {
+        @JsonFormat(pattern = "dd.MM.yyyy HH:mm")
+        public final LocalDateTime time;
+
+        Formatted(LocalDateTime time) {
+            this.time = time;
+        }
+    }
+}